@@ -5,6 +5,7 @@ set -e
 STACK_NAME="employee-api"
 REGION="us-east-1"  # Cambia segn tu regin de AWS
 BUCKET_NAME="employee-api-deployment-bucket-$(date +%s)"
+TEMPLATE_FILE="${TEMPLATE_FILE:-cloudformation.yaml}"  # cloudformation-router.yaml para desplegar una nica funcin
 
 echo "Creando bucket S3 para despliegue..."
 aws s3 mb s3://$BUCKET_NAME --region $REGION
@@ -17,7 +18,7 @@ aws s3 cp target/employee-api-1.0-SNAPSHOT.jar s3://$BUCKET_NAME/employee-api.ja
 
 echo "Desplegando stack de CloudFormation..."
 aws cloudformation deploy \
-  --template-file cloudformation.yaml \
+  --template-file $TEMPLATE_FILE \
   --stack-name $STACK_NAME \
   --capabilities CAPABILITY_IAM \
   --parameter-overrides \
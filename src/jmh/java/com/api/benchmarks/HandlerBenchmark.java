@@ -0,0 +1,137 @@
+package com.api.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.handlers.CreateUpdateEmployeeHandler;
+import com.api.handlers.GetAllEmployeesHandler;
+import com.api.handlers.GetEmployeeByIdHandler;
+import com.api.handlers.LoginHandler;
+import com.api.models.Employee;
+import com.api.models.User;
+import com.api.repositories.InMemoryUserRepository;
+import com.api.utils.Metrics;
+import com.api.utils.RuntimeContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Invocación completa de los handlers (token, repositorio, serialización y respuesta) sobre repositorios en memoria
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerBenchmark {
+
+    @Param({"1000"})
+    private int employees;
+
+    private final Context context = new BenchmarkContext();
+    private RuntimeContext runtime;
+    private LoginHandler loginHandler;
+    private GetAllEmployeesHandler getAllHandler;
+    private GetEmployeeByIdHandler getByIdHandler;
+    private CreateUpdateEmployeeHandler createHandler;
+
+    private APIGatewayProxyRequestEvent loginRequest;
+    private APIGatewayProxyRequestEvent listRequest;
+    private APIGatewayProxyRequestEvent sparseListRequest;
+    private APIGatewayProxyRequestEvent getByIdRequest;
+    private APIGatewayProxyRequestEvent createRequest;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Sin líneas EMF: se mide el handler, no la escritura a stdout
+        Metrics.setEnabled(false);
+        runtime = RuntimeContext.inMemory();
+        ((InMemoryUserRepository) runtime.getUserRepository()).save(new User("admin", "admin123", "admin-id"));
+        loginHandler = new LoginHandler(runtime);
+        getAllHandler = new GetAllEmployeesHandler(runtime);
+        getByIdHandler = new GetEmployeeByIdHandler(runtime);
+        createHandler = new CreateUpdateEmployeeHandler(runtime);
+
+        // Árbol de 10 reportes por supervisor, guardado en una sola escritura agrupada
+        List<Employee> seed = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            Employee employee = new Employee(String.format("employee-%07d", i), "Empleado " + i, "empleado" + i + "@example.com",
+                    i == 0 ? null : String.format("employee-%07d", (i - 1) / 10), "2024-05-01T12:00:00Z");
+            employee.setDirectReportsCount(0);
+            employee.setVersion(1L);
+            seed.add(employee);
+        }
+        runtime.getEmployeeRepository().saveAll(seed).join();
+
+        loginRequest = post("/login", "{\"username\":\"admin\",\"password\":\"admin123\",\"expirationMinutes\":60}", null);
+        String token = (String) runtime.getGson().fromJson(loginHandler.handleRequest(loginRequest, context).getBody(), Map.class).get("token");
+
+        listRequest = get(token, null, Map.of("limit", "100"));
+        sparseListRequest = get(token, null, Map.of("limit", "100", "fields", "id,nombre"));
+        getByIdRequest = get(token, Map.of("id", "employee-0000042"), null);
+        createRequest = post("/employees", null, token);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent login() {
+        return loginHandler.handleRequest(loginRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent listPage() {
+        return getAllHandler.handleRequest(listRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent listSparsePage() {
+        return getAllHandler.handleRequest(sparseListRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getById() {
+        return getByIdHandler.handleRequest(getByIdRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent create() {
+        // Cada creación reserva su email: se usa uno distinto en cada invocación
+        createRequest.setBody("{\"nombre\":\"Nuevo\",\"email\":\"nuevo" + (++created) + "@example.com\",\"supervisor_id\":\"employee-0000001\"}");
+        return createHandler.handleRequest(createRequest, context);
+    }
+
+    private static APIGatewayProxyRequestEvent post(String resource, String body, String token) {
+        Map<String, String> headers = new HashMap<>();
+        if (token != null) {
+            headers.put("Authorization", token);
+        }
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withResource(resource)
+                .withHeaders(headers)
+                .withBody(body);
+    }
+
+    private static APIGatewayProxyRequestEvent get(String token, Map<String, String> pathParameters, Map<String, String> queryParameters) {
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withHeaders(Map.of("Authorization", token))
+                .withPathParameters(pathParameters)
+                .withQueryStringParameters(queryParameters);
+    }
+}
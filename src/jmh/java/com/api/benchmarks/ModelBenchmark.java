@@ -0,0 +1,87 @@
+package com.api.benchmarks;
+
+import com.api.models.Employee;
+import com.api.models.EmployeeFields;
+import com.api.models.LoginRequest;
+import com.api.utils.JsonBody;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Conversión de empleados entre items de DynamoDB, objetos y JSON
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelBenchmark {
+
+    private static final String LOGIN_JSON = "{\"username\":\"admin\",\"password\":\"admin123\",\"expirationMinutes\":60}";
+
+    private final Gson gson = new Gson();
+    private Employee employee;
+    private Map<String, AttributeValue> item;
+    private String employeeJson;
+    private EmployeeFields sparseFields;
+
+    @Setup
+    public void setup() {
+        employee = new Employee("4b7c1f9e-6c1a-4d0e-9a55-1f0b2c3d4e5f", "María Fernández", "maria.fernandez@example.com",
+                "0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0", "2024-05-01T12:00:00Z");
+        employee.setDirectReportsCount(4);
+        employee.setVersion(7L);
+        employee.setAncestors(List.of("9a8b7c6d-5e4f-3a2b-1c0d-e9f8a7b6c5d4", "0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0"));
+        item = employee.toDynamoDBItem();
+        employeeJson = gson.toJson(employee);
+        sparseFields = EmployeeFields.parse("id,nombre");
+    }
+
+    @Benchmark
+    public Employee fromDynamoDBItem() {
+        return Employee.fromDynamoDBItem(item);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> toDynamoDBItem() {
+        return employee.toDynamoDBItem();
+    }
+
+    @Benchmark
+    public String writeEmployee() {
+        return JsonBody.write(employee::writeTo);
+    }
+
+    @Benchmark
+    public String writeSparseEmployee() {
+        return JsonBody.write(writer -> employee.writeTo(writer, sparseFields));
+    }
+
+    @Benchmark
+    public String gsonToJson() {
+        return gson.toJson(employee);
+    }
+
+    @Benchmark
+    public Employee gsonFromJson() {
+        return gson.fromJson(employeeJson, Employee.class);
+    }
+
+    @Benchmark
+    public LoginRequest gsonLoginRequest() {
+        return gson.fromJson(LOGIN_JSON, LoginRequest.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.api.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.models.Employee;
+import com.api.utils.ApiGatewayResponse;
+import com.api.utils.JsonBody;
+import com.api.utils.TokenGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Construcción de respuestas de API Gateway y generación de tokens
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+
+    private static final String BODY = "{\"message\":\"Empleado obtenido correctamente\"}";
+
+    private String pageBody;
+    private APIGatewayProxyRequestEvent gzipRequest;
+
+    @Setup
+    public void setup() {
+        // Página de 100 empleados, como la respuesta por defecto de GET /employees
+        pageBody = JsonBody.write(writer -> {
+            writer.beginObject();
+            writer.name("employees").beginArray();
+            for (int i = 0; i < 100; i++) {
+                Employee employee = new Employee("employee-" + i, "Empleado " + i, "empleado" + i + "@example.com",
+                        "supervisor-" + (i / 10), "2024-05-01T12:00:00Z");
+                employee.setVersion(1L);
+                employee.writeTo(writer);
+            }
+            writer.endArray();
+            writer.endObject();
+        });
+        gzipRequest = new APIGatewayProxyRequestEvent().withHeaders(Map.of("Accept-Encoding", "gzip, deflate, br"));
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent build() {
+        return ApiGatewayResponse.build(200, BODY);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent buildWithHeaders() {
+        return ApiGatewayResponse.build(200, BODY, Map.of("ETag", "\"7\""));
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent message() {
+        return ApiGatewayResponse.message(401, "Token inválido");
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent encodeGzipPage() {
+        return ApiGatewayResponse.encode(gzipRequest, ApiGatewayResponse.build(200, pageBody));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return TokenGenerator.generateToken();
+    }
+}
@@ -0,0 +1,28 @@
+package com.api.loadtest;
+
+import com.api.models.User;
+import com.api.utils.RuntimeContext;
+
+// Almacenamiento contra el que corren los handlers durante la prueba
+public interface Backend extends AutoCloseable {
+
+    // Descripción para el reporte
+    String describe();
+
+    RuntimeContext getRuntime();
+
+    /**
+     * Da de alta un usuario (la API no expone altas de usuarios)
+     * @param user usuario a guardar
+     */
+    void saveUser(User user);
+
+    /**
+     * Contadores de capacidad consumida e items examinados
+     * @return el recolector, o null si el almacenamiento no los informa
+     */
+    CapacityRecorder getRecorder();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,102 @@
+package com.api.loadtest;
+
+import com.api.utils.DynamoDbUsage;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Interceptor del cliente de DynamoDB: pide la capacidad consumida en cada llamada y acumula,
+// junto con los items examinados y devueltos, los totales del escenario en curso
+public class CapacityRecorder implements ExecutionInterceptor {
+
+    private final DoubleAdder readUnits = new DoubleAdder();
+    private final DoubleAdder writeUnits = new DoubleAdder();
+    private final LongAdder scannedItems = new LongAdder();
+    private final LongAdder returnedItems = new LongAdder();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        return DynamoDbUsage.withConsumedCapacity(context.request());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        calls.computeIfAbsent(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME), name -> new LongAdder()).increment();
+
+        DynamoDbUsage usage = DynamoDbUsage.of(context.response());
+        readUnits.add(usage.getReadUnits());
+        writeUnits.add(usage.getWriteUnits());
+        scannedItems.add(usage.getScannedItems());
+        returnedItems.add(usage.getReturnedItems());
+    }
+
+    /**
+     * Pone los contadores en cero, al comenzar la medición de un escenario
+     */
+    public void reset() {
+        readUnits.reset();
+        writeUnits.reset();
+        scannedItems.reset();
+        returnedItems.reset();
+        calls.clear();
+    }
+
+    /**
+     * Toma los totales acumulados desde el último reset
+     * @return copia inmutable de los contadores
+     */
+    public Snapshot snapshot() {
+        Map<String, Long> callCounts = new TreeMap<>();
+        calls.forEach((operation, count) -> callCounts.put(operation, count.sum()));
+        return new Snapshot(readUnits.sum(), writeUnits.sum(), scannedItems.sum(), returnedItems.sum(), callCounts);
+    }
+
+    // Totales de un escenario
+    public static class Snapshot {
+        private final double readUnits;
+        private final double writeUnits;
+        private final long scannedItems;
+        private final long returnedItems;
+        private final Map<String, Long> calls;
+
+        Snapshot(double readUnits, double writeUnits, long scannedItems, long returnedItems, Map<String, Long> calls) {
+            this.readUnits = readUnits;
+            this.writeUnits = writeUnits;
+            this.scannedItems = scannedItems;
+            this.returnedItems = returnedItems;
+            this.calls = calls;
+        }
+
+        public double getReadUnits() {
+            return readUnits;
+        }
+
+        public double getWriteUnits() {
+            return writeUnits;
+        }
+
+        // Items examinados por DynamoDB (ScannedCount en Scan y Query, uno por GetItem)
+        public long getScannedItems() {
+            return scannedItems;
+        }
+
+        // Items devueltos al handler, después de filtros
+        public long getReturnedItems() {
+            return returnedItems;
+        }
+
+        // Llamadas a DynamoDB por operación
+        public Map<String, Long> getCalls() {
+            return calls;
+        }
+    }
+}
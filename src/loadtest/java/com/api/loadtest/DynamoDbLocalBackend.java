@@ -0,0 +1,199 @@
+package com.api.loadtest;
+
+import com.amazonaws.services.dynamodbv2.local.main.ServerRunner;
+import com.amazonaws.services.dynamodbv2.local.server.DynamoDBProxyServer;
+import com.api.models.User;
+import com.api.repositories.DynamoDbEmployeeRepository;
+import com.api.repositories.DynamoDbTokenRepository;
+import com.api.repositories.DynamoDbUserRepository;
+import com.api.utils.RuntimeContext;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndex;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ResourceInUseException;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+// DynamoDB Local, embebido en el mismo proceso o ya levantado en otro endpoint (por ejemplo con Docker).
+// Los repositorios son los de producción; el cliente agrega el interceptor que mide la capacidad consumida
+public class DynamoDbLocalBackend implements Backend {
+
+    private static final String NATIVE_LIBS = "target/native-libs";
+
+    private final DynamoDBProxyServer server;
+    private final String endpoint;
+    private final ExecutorService ioExecutor;
+    private final DynamoDbAsyncClient client;
+    private final CapacityRecorder recorder = new CapacityRecorder();
+    private final RuntimeContext runtime;
+
+    private DynamoDbLocalBackend(DynamoDBProxyServer server, String endpoint, int maxConnections) {
+        this.server = server;
+        this.endpoint = endpoint;
+
+        // Misma configuración que en Lambda: cliente CRT y continuaciones en el pool de E/S propio
+        this.ioExecutor = RuntimeContext.createIoExecutor();
+        this.client = DynamoDbAsyncClient.builder()
+                .asyncConfiguration(config -> config
+                        .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, ioExecutor))
+                .httpClientBuilder(AwsCrtAsyncHttpClient.builder().maxConcurrency(maxConnections))
+                .overrideConfiguration(config -> config.addExecutionInterceptor(recorder))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("local", "local")))
+                .endpointOverride(URI.create(endpoint))
+                .build();
+        this.runtime = new RuntimeContext(ioExecutor, client, new DynamoDbUserRepository(client),
+                new DynamoDbTokenRepository(client), new DynamoDbEmployeeRepository(client));
+    }
+
+    /**
+     * Inicia DynamoDB Local en memoria dentro del proceso, en un puerto libre
+     * @param maxConnections conexiones máximas del cliente HTTP
+     * @return backend con las tablas creadas
+     */
+    public static DynamoDbLocalBackend embedded(int maxConnections) {
+        // SQLite necesita sus bibliotecas nativas, copiadas por el perfil loadtest
+        if (System.getProperty("sqlite4java.library.path") == null) {
+            if (!new File(NATIVE_LIBS).isDirectory()) {
+                throw new IllegalStateException("No se encontró " + NATIVE_LIBS
+                        + ": ejecute mvn -P loadtest package o indique -Dsqlite4java.library.path");
+            }
+            System.setProperty("sqlite4java.library.path", NATIVE_LIBS);
+        }
+
+        int port = freePort();
+        DynamoDBProxyServer server;
+        try {
+            server = ServerRunner.createServerFromCommandLineArgs(
+                    new String[]{"-inMemory", "-disableTelemetry", "-port", String.valueOf(port)});
+            server.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo iniciar DynamoDB Local: " + e.getMessage(), e);
+        }
+
+        DynamoDbLocalBackend backend = new DynamoDbLocalBackend(server, "http://localhost:" + port, maxConnections);
+        backend.createTables();
+        return backend;
+    }
+
+    /**
+     * Se conecta a un DynamoDB Local existente y crea las tablas que falten
+     * @param endpoint URL del servicio, por ejemplo http://localhost:8000
+     * @param maxConnections conexiones máximas del cliente HTTP
+     * @return backend con las tablas creadas
+     */
+    public static DynamoDbLocalBackend remote(String endpoint, int maxConnections) {
+        DynamoDbLocalBackend backend = new DynamoDbLocalBackend(null, endpoint, maxConnections);
+        backend.createTables();
+        return backend;
+    }
+
+    @Override
+    public String describe() {
+        return (server != null ? "DynamoDB Local embebido en " : "DynamoDB Local en ") + endpoint;
+    }
+
+    @Override
+    public RuntimeContext getRuntime() {
+        return runtime;
+    }
+
+    @Override
+    public void saveUser(User user) {
+        client.putItem(PutItemRequest.builder()
+                .tableName("Users")
+                .item(user.toDynamoDBItem())
+                .build()).join();
+    }
+
+    @Override
+    public CapacityRecorder getRecorder() {
+        return recorder;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        ioExecutor.shutdown();
+        if (server != null) {
+            try {
+                server.stop();
+            } catch (Exception e) {
+                System.err.println("No se pudo detener DynamoDB Local: " + e.getMessage());
+            }
+        }
+    }
+
+    // Mismas claves e índice que en cloudformation.yaml
+    private void createTables() {
+        createTable(CreateTableRequest.builder()
+                .tableName("Users")
+                .attributeDefinitions(attribute("username"))
+                .keySchema(hashKey("username")));
+        createTable(CreateTableRequest.builder()
+                .tableName("Tokens")
+                .attributeDefinitions(attribute("token"))
+                .keySchema(hashKey("token")));
+        createTable(CreateTableRequest.builder()
+                .tableName("Employees")
+                .attributeDefinitions(attribute("id"), attribute("supervisor_id"))
+                .keySchema(hashKey("id"))
+                .globalSecondaryIndexes(GlobalSecondaryIndex.builder()
+                        .indexName("supervisor_id-index")
+                        .keySchema(hashKey("supervisor_id"))
+                        .projection(Projection.builder().projectionType(ProjectionType.KEYS_ONLY).build())
+                        .build()));
+        createTable(CreateTableRequest.builder()
+                .tableName("EmployeeEmails")
+                .attributeDefinitions(attribute("email"))
+                .keySchema(hashKey("email")));
+    }
+
+    private void createTable(CreateTableRequest.Builder request) {
+        String tableName = request.build().tableName();
+        try {
+            client.createTable(request.billingMode(BillingMode.PAY_PER_REQUEST).build()).join();
+        } catch (CompletionException e) {
+            // La tabla ya existe en un DynamoDB Local reutilizado
+            if (!(e.getCause() instanceof ResourceInUseException)) {
+                throw e;
+            }
+        }
+        client.waiter().waitUntilTableExists(builder -> builder.tableName(tableName)).join();
+    }
+
+    private static AttributeDefinition attribute(String name) {
+        return AttributeDefinition.builder().attributeName(name).attributeType(ScalarAttributeType.S).build();
+    }
+
+    private static KeySchemaElement hashKey(String name) {
+        return KeySchemaElement.builder().attributeName(name).keyType(KeyType.HASH).build();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
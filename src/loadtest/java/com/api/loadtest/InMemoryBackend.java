@@ -0,0 +1,36 @@
+package com.api.loadtest;
+
+import com.api.models.User;
+import com.api.repositories.InMemoryUserRepository;
+import com.api.utils.RuntimeContext;
+
+// Repositorios en memoria: mide el costo propio de los handlers, sin red ni capacidad consumida
+public class InMemoryBackend implements Backend {
+
+    private final RuntimeContext runtime = RuntimeContext.inMemory();
+
+    @Override
+    public String describe() {
+        return "repositorios en memoria";
+    }
+
+    @Override
+    public RuntimeContext getRuntime() {
+        return runtime;
+    }
+
+    @Override
+    public void saveUser(User user) {
+        ((InMemoryUserRepository) runtime.getUserRepository()).save(user);
+    }
+
+    @Override
+    public CapacityRecorder getRecorder() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        runtime.getIoExecutor().shutdown();
+    }
+}
@@ -0,0 +1,165 @@
+package com.api.loadtest;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.handlers.LoginHandler;
+import com.api.models.User;
+import com.api.utils.Metrics;
+import com.google.gson.JsonObject;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+// Prueba de carga de punta a punta: siembra Users, Tokens y Employees e invoca los handlers en paralelo
+// con eventos sintéticos de API Gateway. Por defecto corre contra un DynamoDB Local embebido:
+//   mvn -P loadtest package && java -jar target/loadtest.jar --employees=100000 --concurrency=32
+// Opciones: --employees, --users, --concurrency, --requests, --warmup, --pageSize, --maxConnections, --seed,
+// --scenarios=login,getAll,getById,getByEmail,createUpdate, --endpoint=http://localhost:8000, --in-memory, --output=dir
+public class LoadTest {
+
+    static final String PASSWORD = "loadtest";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        // Las invocaciones concurrentes comparten la JVM: las métricas por invocación no aplican aquí
+        Metrics.setEnabled(false);
+
+        try (Backend backend = createBackend(options)) {
+            System.out.println("Almacenamiento: " + backend.describe());
+
+            // Organigrama
+            long start = System.nanoTime();
+            OrgChartSeeder seeder = new OrgChartSeeder(backend.getRuntime().getEmployeeRepository(), options.getSeed());
+            seeder.seed(options.getEmployees());
+            System.out.printf(Locale.ROOT, "Sembrados %d empleados (%d supervisores, %d niveles) en %.1f s%n",
+                    options.getEmployees(), seeder.getManagers(), seeder.getMaxDepth() + 1, seconds(System.nanoTime() - start));
+
+            // Usuarios, y un token por usuario emitido por el propio LoginHandler
+            List<String> usernames = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, options.getUsers()); i++) {
+                String username = String.format("loadtest-%03d", i);
+                backend.saveUser(new User(username, PASSWORD, "user-" + i));
+                usernames.add(username);
+            }
+            List<String> tokens = issueTokens(backend, usernames);
+            System.out.printf("Sembrados %d usuarios y %d tokens%n", usernames.size(), tokens.size());
+
+            Scenarios scenarios = new Scenarios(backend.getRuntime(), usernames, tokens, options.getEmployees(), options.getPageSize());
+            ScenarioRunner runner = new ScenarioRunner(Math.max(1, options.getConcurrency()), options.getWarmup(),
+                    options.getRequests(), backend.getRecorder());
+
+            List<ScenarioResult> results = new ArrayList<>();
+            for (String name : options.getScenarios()) {
+                System.out.println("Ejecutando " + name + "...");
+                results.add(runner.run(scenarios.create(name)));
+            }
+
+            printReport(results, options);
+            writeHistograms(results, new File(options.getOutput()));
+        }
+
+        // DynamoDB Local deja hilos que no son daemon después de detenerse: sin exit la JVM no termina
+        System.exit(0);
+    }
+
+    private static Backend createBackend(LoadTestOptions options) {
+        if (options.isInMemory()) {
+            return new InMemoryBackend();
+        }
+        if (options.getEndpoint() != null) {
+            return DynamoDbLocalBackend.remote(options.getEndpoint(), options.getMaxConnections());
+        }
+        return DynamoDbLocalBackend.embedded(options.getMaxConnections());
+    }
+
+    private static List<String> issueTokens(Backend backend, List<String> usernames) {
+        LoginHandler loginHandler = new LoginHandler(backend.getRuntime());
+        LoadTestContext context = new LoadTestContext();
+        List<String> tokens = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            String body = backend.getRuntime().getGson().toJson(Map.of("username", username, "password", PASSWORD, "expirationMinutes", 600));
+            APIGatewayProxyResponseEvent response = loginHandler.handleRequest(new APIGatewayProxyRequestEvent()
+                    .withHttpMethod("POST")
+                    .withResource("/login")
+                    .withHeaders(Map.of())
+                    .withBody(body), context);
+            if (response.getStatusCode() != 200) {
+                throw new IllegalStateException("No se pudo iniciar sesión con " + username + ": " + response.getBody());
+            }
+            tokens.add(backend.getRuntime().getGson().fromJson(response.getBody(), JsonObject.class).get("token").getAsString());
+        }
+        return tokens;
+    }
+
+    private static void printReport(List<ScenarioResult> results, LoadTestOptions options) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%d empleados, %d workers, %d invocaciones medidas por escenario (latencias en ms)%n",
+                options.getEmployees(), options.getConcurrency(), options.getRequests());
+        System.out.printf(Locale.ROOT, "%-13s %9s %8s %8s %8s %8s %8s %-18s %11s %11s %9s %9s%n",
+                "escenario", "inv/s", "p50", "p90", "p99", "p99.9", "max", "estados",
+                "exam./inv", "devuel./inv", "RCU/inv", "WCU/inv");
+
+        for (ScenarioResult result : results) {
+            Histogram latencies = result.getLatencies();
+            StringJoiner statuses = new StringJoiner(" ");
+            result.getStatuses().forEach((status, count) -> statuses.add(status + "x" + count));
+
+            CapacityRecorder.Snapshot capacity = result.getCapacity();
+            double invocations = Math.max(1, result.getInvocations());
+            System.out.printf(Locale.ROOT, "%-13s %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %-18s %11s %11s %9s %9s%n",
+                    result.getName(), result.getThroughput(),
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()), statuses,
+                    capacity != null ? format(capacity.getScannedItems() / invocations) : "-",
+                    capacity != null ? format(capacity.getReturnedItems() / invocations) : "-",
+                    capacity != null ? format(capacity.getReadUnits() / invocations) : "-",
+                    capacity != null ? format(capacity.getWriteUnits() / invocations) : "-");
+        }
+
+        // Totales y llamadas a DynamoDB por operación
+        for (ScenarioResult result : results) {
+            CapacityRecorder.Snapshot capacity = result.getCapacity();
+            if (capacity != null) {
+                System.out.printf(Locale.ROOT, "%-13s examinados=%d devueltos=%d RCU=%.1f WCU=%.1f llamadas=%s%n",
+                        result.getName(), capacity.getScannedItems(), capacity.getReturnedItems(),
+                        capacity.getReadUnits(), capacity.getWriteUnits(), capacity.getCalls());
+            }
+        }
+    }
+
+    // Un archivo .hgrm por escenario, con la distribución completa en milisegundos
+    private static void writeHistograms(List<ScenarioResult> results, File directory) throws FileNotFoundException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            System.err.println("No se pudo crear " + directory);
+            return;
+        }
+        for (ScenarioResult result : results) {
+            File file = new File(directory, result.getName() + ".hgrm");
+            try (PrintStream out = new PrintStream(file)) {
+                result.getLatencies().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Histogramas en " + directory.getPath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,120 @@
+package com.api.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Opciones de la prueba de carga, recibidas como --nombre=valor
+public class LoadTestOptions {
+
+    private static final List<String> ALL_SCENARIOS = List.of("login", "getAll", "getById", "getByEmail", "createUpdate");
+
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * Interpreta los argumentos de la línea de comandos
+     * @param args argumentos con la forma --nombre=valor (o --nombre para opciones booleanas)
+     * @return opciones leídas
+     */
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento no reconocido: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.values.put(arg.substring(2), "true");
+            } else {
+                options.values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+
+    // Cantidad de empleados a sembrar
+    public int getEmployees() {
+        return getInt("employees", 10_000);
+    }
+
+    // Cantidad de usuarios a sembrar; cada uno inicia sesión una vez y su token lo comparten los workers
+    public int getUsers() {
+        return getInt("users", 20);
+    }
+
+    // Hilos que invocan los handlers en paralelo
+    public int getConcurrency() {
+        return getInt("concurrency", 16);
+    }
+
+    // Invocaciones medidas por escenario
+    public int getRequests() {
+        return getInt("requests", 5_000);
+    }
+
+    // Invocaciones previas a la medición, para que la JIT y las conexiones estén calientes
+    public int getWarmup() {
+        return getInt("warmup", 500);
+    }
+
+    // Tamaño de página del escenario getAll
+    public int getPageSize() {
+        return getInt("pageSize", 100);
+    }
+
+    // Conexiones máximas del cliente HTTP hacia DynamoDB
+    public int getMaxConnections() {
+        return getInt("maxConnections", 50);
+    }
+
+    // Semilla del generador, para repetir el mismo organigrama entre corridas
+    public long getSeed() {
+        return Long.parseLong(values.getOrDefault("seed", "42"));
+    }
+
+    // Endpoint de un DynamoDB Local ya levantado; si no se indica se inicia uno embebido
+    public String getEndpoint() {
+        return values.get("endpoint");
+    }
+
+    // Usa los repositorios en memoria en lugar de DynamoDB Local
+    public boolean isInMemory() {
+        return Boolean.parseBoolean(values.getOrDefault("in-memory", "false"));
+    }
+
+    // Directorio donde se guardan los histogramas (.hgrm) de cada escenario
+    public String getOutput() {
+        return values.getOrDefault("output", "target/loadtest");
+    }
+
+    // Escenarios a ejecutar, en orden
+    public List<String> getScenarios() {
+        String value = values.get("scenarios");
+        if (value == null) {
+            return ALL_SCENARIOS;
+        }
+        List<String> scenarios = new ArrayList<>();
+        for (String name : Arrays.asList(value.split(","))) {
+            String trimmed = name.trim();
+            if (!ALL_SCENARIOS.contains(trimmed)) {
+                throw new IllegalArgumentException("El escenario " + trimmed + " no existe, disponibles: " + ALL_SCENARIOS);
+            }
+            scenarios.add(trimmed);
+        }
+        return scenarios;
+    }
+
+    private int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed = Integer.parseInt(value.replace("_", ""));
+        if (parsed < 0) {
+            throw new IllegalArgumentException("La opción --" + name + " no puede ser negativa");
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,165 @@
+package com.api.loadtest;
+
+import com.api.models.Employee;
+import com.api.repositories.EmployeeBatchWriteResult;
+import com.api.repositories.EmployeeRepository;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+// Genera y guarda un organigrama con forma realista: mientras falten empleados por asignar, cada uno
+// supervisa con probabilidad 0.3 a entre 4 y 12 personas. Queda cerca de un supervisor cada ocho empleados
+// y una profundidad de unos 10 niveles con 20 mil empleados y 15 con un millón
+public class OrgChartSeeder {
+
+    private static final double MANAGER_RATIO = 0.3;
+    private static final int MIN_SPAN = 4;
+    private static final int MAX_SPAN = 12;
+    private static final int WRITE_CHUNK = 2_500;
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final EmployeeRepository employeeRepository;
+    private final Random random;
+
+    private int maxDepth;
+    private int managers;
+
+    public OrgChartSeeder(EmployeeRepository employeeRepository, long seed) {
+        this.employeeRepository = employeeRepository;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * ID del empleado en la posición indicada; el organigrama se numera en anchura desde la raíz
+     * @param index posición, entre 0 y la cantidad sembrada
+     * @return ID del empleado
+     */
+    public static String employeeId(int index) {
+        return String.format("emp-%07d", index);
+    }
+
+    /**
+     * Email del empleado en la posición indicada, para buscarlo por email
+     * @param index posición, entre 0 y la cantidad sembrada
+     * @return email del empleado
+     */
+    public static String employeeEmail(int index) {
+        return "empleado" + index + "@example.com";
+    }
+
+    /**
+     * Genera el organigrama en anchura y lo escribe por bloques, sin mantenerlo completo en memoria.
+     * La cantidad de reportes de cada supervisor se decide al crearlo, así el contador se guarda correcto
+     * @param total cantidad de empleados
+     */
+    public void seed(int total) {
+        String lastUpdated = Instant.now().toString();
+        Deque<Manager> pending = new ArrayDeque<>();
+        List<Employee> chunk = new ArrayList<>(WRITE_CHUNK);
+
+        // Empleados ya asignados a algún supervisor (o la raíz), creados o por crear
+        int planned = 1;
+        int created = 0;
+
+        Manager parent = null;
+        while (created < total) {
+            if (parent == null || parent.remaining == 0) {
+                parent = pending.poll();
+            }
+
+            String id = employeeId(created);
+            String email = employeeEmail(created);
+            List<String> ancestors = parent == null ? List.of() : parent.childAncestors;
+            int depth = ancestors.size();
+            created++;
+
+            // Cantidad de reportes, acotada para no prometer más empleados que el total
+            int reports = created == 1 || random.nextDouble() < MANAGER_RATIO
+                    ? MIN_SPAN + random.nextInt(MAX_SPAN - MIN_SPAN + 1)
+                    : 0;
+            if (reports == 0 && planned == created && planned < total) {
+                // Último empleado pendiente: debe supervisar a alguien para que el árbol siga creciendo
+                reports = 1;
+            }
+            reports = Math.min(reports, total - planned);
+            planned += reports;
+
+            Employee employee = new Employee(id, "Empleado " + created, email,
+                    parent == null ? null : parent.id, lastUpdated);
+            employee.setDirectReportsCount(reports);
+            employee.setVersion(1L);
+            employee.setAncestors(ancestors);
+            chunk.add(employee);
+
+            if (parent != null) {
+                parent.remaining--;
+            }
+            if (reports > 0) {
+                managers++;
+                List<String> childAncestors = new ArrayList<>(ancestors);
+                childAncestors.add(id);
+                pending.add(new Manager(id, List.copyOf(childAncestors), reports));
+            }
+            maxDepth = Math.max(maxDepth, depth);
+
+            if (chunk.size() == WRITE_CHUNK) {
+                write(chunk);
+                chunk = new ArrayList<>(WRITE_CHUNK);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk);
+        }
+    }
+
+    // Niveles por debajo de la raíz del empleado más profundo
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // Empleados con al menos un reporte directo
+    public int getManagers() {
+        return managers;
+    }
+
+    /**
+     * Escribe un bloque, reintentando los empleados que DynamoDB no procesó
+     * @param employees empleados a guardar
+     */
+    private void write(List<Employee> employees) {
+        List<Employee> remaining = employees;
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            EmployeeBatchWriteResult result = employeeRepository.saveAll(remaining).join();
+            if (result.isComplete()) {
+                return;
+            }
+            // Se reescriben el item y la reserva: ambas escrituras son idempotentes
+            List<Employee> retry = new ArrayList<>();
+            for (Employee employee : remaining) {
+                if (result.getUnsavedEmployeeIds().contains(employee.getId())
+                        || result.getUnsavedEmailOwnerIds().contains(employee.getId())) {
+                    retry.add(employee);
+                }
+            }
+            remaining = retry;
+        }
+        throw new IllegalStateException("No se pudieron guardar " + remaining.size() + " empleados");
+    }
+
+    // Supervisor que todavía tiene reportes por crear
+    private static class Manager {
+        private final String id;
+        private final List<String> childAncestors;
+        private int remaining;
+
+        Manager(String id, List<String> childAncestors, int remaining) {
+            this.id = id;
+            this.childAncestors = childAncestors;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.api.loadtest;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.util.function.IntFunction;
+
+// Un handler y el generador de eventos sintéticos que lo invocan; cada worker tiene su propio estado
+public class Scenario {
+
+    // Estado de un worker: arma la próxima solicitud y opcionalmente lee la respuesta (fuera de la medición)
+    public interface Worker {
+        APIGatewayProxyRequestEvent next();
+
+        default void completed(APIGatewayProxyResponseEvent response) {
+        }
+    }
+
+    private final String name;
+    private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler;
+    private final IntFunction<Worker> workerFactory;
+
+    public Scenario(String name, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler,
+                    IntFunction<Worker> workerFactory) {
+        this.name = name;
+        this.handler = handler;
+        this.workerFactory = workerFactory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> getHandler() {
+        return handler;
+    }
+
+    /**
+     * Crea el estado de un worker
+     * @param index número de worker, desde 0
+     * @return worker nuevo
+     */
+    public Worker newWorker(int index) {
+        return workerFactory.apply(index);
+    }
+}
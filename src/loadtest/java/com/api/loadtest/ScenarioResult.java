@@ -0,0 +1,54 @@
+package com.api.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+// Mediciones de un escenario
+public class ScenarioResult {
+    private final String name;
+    private final Histogram latencies;
+    private final long elapsedNanos;
+    private final Map<Integer, Long> statuses;
+    private final CapacityRecorder.Snapshot capacity;
+
+    public ScenarioResult(String name, Histogram latencies, long elapsedNanos, Map<Integer, Long> statuses,
+                          CapacityRecorder.Snapshot capacity) {
+        this.name = name;
+        this.latencies = latencies;
+        this.elapsedNanos = elapsedNanos;
+        this.statuses = statuses;
+        this.capacity = capacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Latencia de cada invocación, en microsegundos
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Invocaciones por código de estado HTTP (0 = el handler lanzó una excepción)
+    public Map<Integer, Long> getStatuses() {
+        return statuses;
+    }
+
+    // Capacidad consumida e items examinados, o null si el almacenamiento no los informa
+    public CapacityRecorder.Snapshot getCapacity() {
+        return capacity;
+    }
+
+    public long getInvocations() {
+        return latencies.getTotalCount();
+    }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getInvocations() * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,135 @@
+package com.api.loadtest;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ejecuta un escenario con varios workers en paralelo: primero el calentamiento, luego la medición
+public class ScenarioRunner {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final int concurrency;
+    private final int warmup;
+    private final int requests;
+    private final CapacityRecorder recorder;
+    private final Context context = new LoadTestContext();
+
+    /**
+     * @param concurrency cantidad de workers
+     * @param warmup invocaciones descartadas antes de medir
+     * @param requests invocaciones medidas
+     * @param recorder contadores de DynamoDB, o null si no hay
+     */
+    public ScenarioRunner(int concurrency, int warmup, int requests, CapacityRecorder recorder) {
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.requests = requests;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Ejecuta el escenario completo
+     * @param scenario escenario a medir
+     * @return latencias, estados y capacidad consumida durante la medición
+     */
+    public ScenarioResult run(Scenario scenario) throws InterruptedException {
+        List<Scenario.Worker> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(scenario.newWorker(i));
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-" + scenario.getName() + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            runPhase(scenario, workers, threads, warmup, null, new ConcurrentHashMap<>());
+            if (recorder != null) {
+                recorder.reset();
+            }
+
+            List<Histogram> histograms = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                histograms.add(new Histogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS));
+            }
+            Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+            long start = System.nanoTime();
+            runPhase(scenario, workers, threads, requests, histograms, statuses);
+            long elapsed = System.nanoTime() - start;
+
+            Histogram latencies = new Histogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+            for (Histogram histogram : histograms) {
+                latencies.add(histogram);
+            }
+            Map<Integer, Long> statusCounts = new TreeMap<>();
+            statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+
+            return new ScenarioResult(scenario.getName(), latencies, elapsed, statusCounts,
+                    recorder != null ? recorder.snapshot() : null);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * Reparte una cantidad fija de invocaciones entre los workers
+     * @param histograms un histograma por worker, o null para no registrar latencias
+     */
+    private void runPhase(Scenario scenario, List<Scenario.Worker> workers, ExecutorService threads, int total,
+                          List<Histogram> histograms, Map<Integer, LongAdder> statuses) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(total);
+        List<Future<?>> running = new ArrayList<>(workers.size());
+        for (int i = 0; i < workers.size(); i++) {
+            Scenario.Worker worker = workers.get(i);
+            Histogram histogram = histograms != null ? histograms.get(i) : null;
+            running.add(threads.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    long start = System.nanoTime();
+                    APIGatewayProxyResponseEvent response;
+                    try {
+                        response = scenario.getHandler().handleRequest(worker.next(), context);
+                    } catch (RuntimeException e) {
+                        response = null;
+                    }
+                    long micros = (System.nanoTime() - start) / 1_000;
+
+                    if (histogram != null) {
+                        histogram.recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+                    }
+                    int status = response != null && response.getStatusCode() != null ? response.getStatusCode() : 0;
+                    statuses.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+                    if (response != null) {
+                        worker.completed(response);
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falló un worker del escenario " + scenario.getName(), e.getCause());
+            }
+        }
+    }
+}
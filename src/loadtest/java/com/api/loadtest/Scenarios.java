@@ -0,0 +1,185 @@
+package com.api.loadtest;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.handlers.CreateUpdateEmployeeHandler;
+import com.api.handlers.GetAllEmployeesHandler;
+import com.api.handlers.GetEmployeeByIdHandler;
+import com.api.handlers.LoginHandler;
+import com.api.utils.RuntimeContext;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Escenarios de la prueba: eventos sintéticos de API Gateway para cada handler
+public class Scenarios {
+
+    private final RuntimeContext runtime;
+    private final Gson gson;
+    private final List<String> usernames;
+    private final List<String> tokens;
+    private final int employees;
+    private final int pageSize;
+
+    /**
+     * @param runtime contexto compartido por los handlers
+     * @param usernames usuarios sembrados (la contraseña es loadtest)
+     * @param tokens tokens vigentes; cada worker usa uno
+     * @param employees cantidad de empleados sembrados
+     * @param pageSize tamaño de página del listado
+     */
+    public Scenarios(RuntimeContext runtime, List<String> usernames, List<String> tokens, int employees, int pageSize) {
+        this.runtime = runtime;
+        this.gson = runtime.getGson();
+        this.usernames = usernames;
+        this.tokens = tokens;
+        this.employees = employees;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Crea el escenario con el nombre indicado
+     * @param name login, getAll, getById, getByEmail o createUpdate
+     * @return escenario listo para ejecutar
+     */
+    public Scenario create(String name) {
+        switch (name) {
+            case "login":
+                return login();
+            case "getAll":
+                return getAll();
+            case "getById":
+                return getById();
+            case "getByEmail":
+                return getByEmail();
+            case "createUpdate":
+                return createUpdate();
+            default:
+                throw new IllegalArgumentException("El escenario " + name + " no existe");
+        }
+    }
+
+    // Inicio de sesión de un usuario al azar: una lectura de Users y una escritura en Tokens
+    private Scenario login() {
+        return new Scenario("login", new LoginHandler(runtime), index -> () -> {
+            String username = usernames.get(ThreadLocalRandom.current().nextInt(usernames.size()));
+            Map<String, Object> body = Map.of("username", username, "password", LoadTest.PASSWORD, "expirationMinutes", 60);
+            return post("/login", gson.toJson(body), null);
+        });
+    }
+
+    // Recorre el listado página por página; al terminar vuelve a empezar
+    private Scenario getAll() {
+        return new Scenario("getAll", new GetAllEmployeesHandler(runtime), index -> new Scenario.Worker() {
+            private final String token = tokenFor(index);
+            private String nextToken;
+
+            @Override
+            public APIGatewayProxyRequestEvent next() {
+                Map<String, String> query = new HashMap<>();
+                query.put("limit", Integer.toString(pageSize));
+                if (nextToken != null) {
+                    query.put("nextToken", nextToken);
+                }
+                return get(token, null, query);
+            }
+
+            @Override
+            public void completed(APIGatewayProxyResponseEvent response) {
+                JsonElement next = response.getStatusCode() == 200
+                        ? gson.fromJson(response.getBody(), JsonObject.class).get("nextToken")
+                        : null;
+                nextToken = next != null && !next.isJsonNull() ? next.getAsString() : null;
+            }
+        });
+    }
+
+    // Lectura de un empleado al azar
+    private Scenario getById() {
+        return new Scenario("getById", new GetEmployeeByIdHandler(runtime), index -> {
+            String token = tokenFor(index);
+            return () -> {
+                String id = OrgChartSeeder.employeeId(ThreadLocalRandom.current().nextInt(employees));
+                return get(token, Map.of("id", id), null);
+            };
+        });
+    }
+
+    // Búsqueda por email de un empleado al azar
+    private Scenario getByEmail() {
+        return new Scenario("getByEmail", new GetAllEmployeesHandler(runtime), index -> {
+            String token = tokenFor(index);
+            return () -> {
+                String email = OrgChartSeeder.employeeEmail(ThreadLocalRandom.current().nextInt(employees));
+                return get(token, null, Map.of("email", email));
+            };
+        });
+    }
+
+    // Tres de cada cuatro solicitudes crean un empleado bajo un supervisor al azar; la cuarta renombra
+    // uno creado antes por el mismo worker, manteniendo su supervisor
+    private Scenario createUpdate() {
+        return new Scenario("createUpdate", new CreateUpdateEmployeeHandler(runtime), index -> new Scenario.Worker() {
+            private final String token = tokenFor(index);
+            private final List<String[]> created = new ArrayList<>();
+            private int sequence;
+
+            @Override
+            public APIGatewayProxyRequestEvent next() {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                sequence++;
+                Map<String, Object> body = new HashMap<>();
+                if (sequence % 4 == 0 && !created.isEmpty()) {
+                    String[] employee = created.get(random.nextInt(created.size()));
+                    body.put("id", employee[0]);
+                    body.put("supervisor_id", employee[1]);
+                    body.put("nombre", "Renombrado " + index + "-" + sequence);
+                    body.put("email", "renombrado" + index + "-" + sequence + "@example.com");
+                } else {
+                    body.put("supervisor_id", OrgChartSeeder.employeeId(random.nextInt(employees)));
+                    body.put("nombre", "Nuevo " + index + "-" + sequence);
+                    body.put("email", "nuevo" + index + "-" + sequence + "@example.com");
+                }
+                return post("/employees", gson.toJson(body), token);
+            }
+
+            @Override
+            public void completed(APIGatewayProxyResponseEvent response) {
+                if (response.getStatusCode() == 201) {
+                    JsonObject employee = gson.fromJson(response.getBody(), JsonObject.class).getAsJsonObject("employee");
+                    created.add(new String[]{employee.get("id").getAsString(), employee.get("supervisor_id").getAsString()});
+                }
+            }
+        });
+    }
+
+    private String tokenFor(int worker) {
+        return tokens.get(worker % tokens.size());
+    }
+
+    private static APIGatewayProxyRequestEvent post(String resource, String body, String token) {
+        Map<String, String> headers = new HashMap<>();
+        if (token != null) {
+            headers.put("Authorization", token);
+        }
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withResource(resource)
+                .withHeaders(headers)
+                .withBody(body);
+    }
+
+    private static APIGatewayProxyRequestEvent get(String token, Map<String, String> pathParameters, Map<String, String> queryParameters) {
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withHeaders(Map.of("Authorization", token))
+                .withPathParameters(pathParameters)
+                .withQueryStringParameters(queryParameters);
+    }
+}
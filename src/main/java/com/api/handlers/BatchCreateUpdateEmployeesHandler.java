@@ -0,0 +1,637 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.models.Employee;
+import com.api.models.EmployeePatch;
+import com.api.repositories.ConcurrentUpdateException;
+import com.api.repositories.DuplicateEmailException;
+import com.api.repositories.EmployeeNotFoundException;
+import com.api.repositories.EmployeeRepository;
+import com.api.repositories.InvalidHierarchyException;
+import com.api.repositories.SupervisorNotFoundException;
+import com.api.repositories.VersionMismatchException;
+import com.api.utils.ApiGatewayResponse;
+import com.api.utils.Futures;
+import com.api.utils.JsonBody;
+import com.api.utils.Metrics;
+import com.api.utils.RequestBody;
+import com.api.utils.RuntimeContext;
+import com.api.utils.SupervisorChain;
+import com.api.utils.TokenVerifier;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+public class BatchCreateUpdateEmployeesHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final RuntimeContext runtime;
+    private final EmployeeRepository employeeRepository;
+    private final SupervisorChain supervisorChain;
+    private final TokenVerifier tokenVerifier;
+    private final Gson gson;
+
+    public BatchCreateUpdateEmployeesHandler() {
+        this(RuntimeContext.get());
+    }
+
+    public BatchCreateUpdateEmployeesHandler(RuntimeContext runtime) {
+        this.runtime = runtime;
+        this.employeeRepository = runtime.getEmployeeRepository();
+        this.supervisorChain = new SupervisorChain(employeeRepository);
+        this.tokenVerifier = runtime.getTokenVerifier();
+        this.gson = runtime.getGson();
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        Metrics metrics = Metrics.start("BatchCreateUpdateEmployees", request, context, runtime.logColdStart(context.getLogger()));
+        return metrics.emit(handle(request, context, metrics));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context, Metrics metrics) {
+        context.getLogger().log("Received batch create/update employees request");
+
+        try {
+            // Verificar token una sola vez para todo el lote
+            String header = request.getHeaders().get("Authorization");
+            String token = header != null ? header : request.getHeaders().get("authorization");
+
+            CompletableFuture<APIGatewayProxyResponseEvent> response = metrics.time("Auth", () -> tokenVerifier.verifyToken(token))
+                    .thenCompose(authResult -> {
+                        if (!(boolean) authResult.get("isValid")) {
+                            return CompletableFuture.completedFuture(
+                                    ApiGatewayResponse.message(401, (String) authResult.get("message")));
+                        }
+                        return saveBatch(request, context.getLogger());
+                    });
+
+            return ApiGatewayResponse.encode(request, Futures.await(response, context));
+
+        } catch (TimeoutException e) {
+            context.getLogger().log("Error: se agotó el tiempo restante de la invocación");
+            return ApiGatewayResponse.message(504, "Tiempo de espera agotado");
+        } catch (Exception e) {
+            Throwable cause = Futures.unwrap(e);
+            context.getLogger().log("Error: " + cause.getMessage());
+            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", String.valueOf(cause.getMessage()))));
+        }
+    }
+
+    private CompletableFuture<APIGatewayProxyResponseEvent> saveBatch(APIGatewayProxyRequestEvent request, LambdaLogger logger) {
+        // Parsear solicitud
+        Employee[] payload;
+        try {
+            payload = gson.fromJson(RequestBody.text(request), Employee[].class);
+        } catch (JsonParseException e) {
+            payload = null;
+        }
+        if (payload == null || payload.length == 0) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "Se esperaba un arreglo de empleados"));
+        }
+        if (payload.length > MAX_BATCH_SIZE) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "El lote admite como máximo " + MAX_BATCH_SIZE + " empleados"));
+        }
+
+        // Validación individual, sin acceso a DynamoDB
+        int size = payload.length;
+        BatchItem[] items = new BatchItem[size];
+        Map<String, Integer> indexById = new HashMap<>();
+        Map<String, Integer> indexByEmail = new HashMap<>();
+        Set<String> lookupIds = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            items[i] = validate(payload[i]);
+            Employee employee = items[i].employee;
+            if (items[i].failed()) {
+                continue;
+            }
+            if (indexById.putIfAbsent(employee.getId(), i) != null) {
+                items[i].fail(400, "El ID está repetido en el lote");
+                continue;
+            }
+            if (indexByEmail.putIfAbsent(Employee.emailKey(employee.getEmail()), i) != null) {
+                items[i].fail(400, "El email está repetido en el lote");
+                continue;
+            }
+            if (items[i].clientId) {
+                lookupIds.add(employee.getId());
+            }
+            if (employee.getSupervisor_id() != null) {
+                lookupIds.add(employee.getSupervisor_id());
+            }
+        }
+
+        // Una sola lectura agrupada resuelve los empleados existentes y todos los supervisores distintos;
+        // en paralelo, otra obtiene los dueños de los emails del lote
+        CompletableFuture<Map<String, String>> emailOwners = employeeRepository.findEmailOwners(indexByEmail.keySet());
+        return employeeRepository.findByIds(lookupIds).thenCombine(emailOwners, (existing, owners) -> {
+            validateEmails(items, owners);
+            validateSupervisors(items, indexById, existing);
+            return existing;
+        }).thenCompose(existing -> loadSupervisorPaths(items, indexById, existing)
+                .thenCompose(supervisorPaths -> writeBatch(items, indexById, existing, supervisorPaths, JsonBody.isPretty(request), logger)));
+    }
+
+    /**
+     * Calcula las rutas de ancestros y guarda los items válidos por niveles, de modo que cada supervisor del lote
+     * se escribe antes que sus reportes. Los empleados nuevos se guardan con escrituras agrupadas; los existentes
+     * con un patch condicionado a la versión leída. Al final ajusta contadores y rutas de descendientes
+     * @param items items del lote
+     * @param indexById posición de cada ID en el lote
+     * @param existing empleados ya guardados
+     * @param supervisorPaths ruta guardada de cada supervisor que no se escribe en el lote
+     * @param pretty si es true se indenta la respuesta
+     * @param logger destino de los avisos sobre escrituras que no pudieron completarse
+     * @return future con la respuesta del lote
+     */
+    private CompletableFuture<APIGatewayProxyResponseEvent> writeBatch(BatchItem[] items, Map<String, Integer> indexById, Map<String, Employee> existing,
+                                                                      Map<String, List<String>> supervisorPaths, boolean pretty, LambdaLogger logger) {
+        for (int i = 0; i < items.length; i++) {
+            resolveAncestors(i, items, indexById, supervisorPaths, new HashSet<>());
+        }
+
+        String now = Instant.now().toString();
+        int levels = 0;
+        for (int i = 0; i < items.length; i++) {
+            BatchItem item = items[i];
+            if (item.failed()) {
+                continue;
+            }
+            item.stored = existing.get(item.employee.getId());
+            item.status = item.stored != null ? 200 : 201;
+            item.employee.setLastUpdated(now);
+            levels = Math.max(levels, level(i, items, indexById) + 1);
+        }
+
+        // Los cambios de supervisor de empleados existentes se validan contra su subárbol real antes de escribir
+        Map<String, String> releasedEmails = new HashMap<>();
+        CompletableFuture<Void> written = checkMoves(items, logger);
+        for (int level = 0; level < levels; level++) {
+            int current = level;
+            written = written.thenCompose(ignored -> writeLevel(items, indexById, current, releasedEmails, logger));
+        }
+
+        return written.thenCompose(ignored -> {
+            Map<String, Integer> deltas = new HashMap<>();
+            for (BatchItem item : items) {
+                if (item.failed()) {
+                    continue;
+                }
+                String previousSupervisorId = item.stored != null ? item.stored.getSupervisor_id() : null;
+                String supervisorId = item.employee.getSupervisor_id();
+                if (!Objects.equals(previousSupervisorId, supervisorId)) {
+                    if (previousSupervisorId != null) {
+                        deltas.merge(previousSupervisorId, -1, Integer::sum);
+                    }
+                    if (supervisorId != null) {
+                        deltas.merge(supervisorId, 1, Integer::sum);
+                    }
+                }
+            }
+
+            // Un ajuste atómico por supervisor afectado, después de escribir los items del lote, junto con la
+            // liberación de las reservas de los empleados nuevos que no pudieron guardarse
+            return CompletableFuture.allOf(employeeRepository.adjustDirectReports(deltas), employeeRepository.releaseEmails(releasedEmails));
+        }).thenCompose(ignored -> propagateMoved(items, logger))
+                .thenApply(ignored -> buildResponse(items, pretty));
+    }
+
+    /**
+     * Calcula el nivel de un item: 0 si su supervisor no se escribe en el lote, o uno más que el de su supervisor
+     * @param index posición del item
+     * @param items items del lote, ya con sus rutas resueltas
+     * @param indexById posición de cada ID en el lote
+     * @return nivel del item
+     */
+    private static int level(int index, BatchItem[] items, Map<String, Integer> indexById) {
+        BatchItem item = items[index];
+        if (item.level < 0) {
+            String supervisorId = item.employee.getSupervisor_id();
+            Integer supervisorIndex = supervisorId != null ? indexById.get(supervisorId) : null;
+            item.level = supervisorIndex != null && !items[supervisorIndex].failed() ? level(supervisorIndex, items, indexById) + 1 : 0;
+        }
+        return item.level;
+    }
+
+    /**
+     * Valida, en paralelo, los cambios de supervisor de los empleados existentes recorriendo su subárbol actual
+     * @param items items del lote
+     * @param logger destino de los errores inesperados
+     * @return future que completa cuando se marcaron los items con cambios no válidos
+     */
+    private CompletableFuture<Void> checkMoves(BatchItem[] items, LambdaLogger logger) {
+        List<CompletableFuture<Void>> checks = new ArrayList<>();
+        for (BatchItem item : items) {
+            if (item.failed() || !item.moved()) {
+                continue;
+            }
+            checks.add(supervisorChain.checkMove(item.stored, item.employee.getSupervisor_id(), item.employee.getAncestors())
+                    .handle((subtree, error) -> {
+                        if (error != null) {
+                            failWrite(item, Futures.unwrap(error), logger);
+                        }
+                        return null;
+                    }));
+        }
+        return CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Escribe los items de un nivel: los nuevos en escrituras agrupadas y los existentes con un patch cada uno, en paralelo
+     * @param items items del lote
+     * @param indexById posición de cada ID en el lote
+     * @param level nivel a escribir
+     * @param releasedEmails reservas a liberar al final, por email normalizado
+     * @param logger destino de los avisos
+     * @return future que completa cuando se escribieron todos los items del nivel
+     */
+    private CompletableFuture<Void> writeLevel(BatchItem[] items, Map<String, Integer> indexById, int level,
+                                               Map<String, String> releasedEmails, LambdaLogger logger) {
+        List<BatchItem> created = new ArrayList<>();
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (BatchItem item : items) {
+            if (item.failed() || item.level != level) {
+                continue;
+            }
+            if (level > 0 && items[indexById.get(item.employee.getSupervisor_id())].failed()) {
+                item.fail(409, "El supervisor_id indicado no pudo guardarse en el lote");
+            } else if (item.stored == null) {
+                created.add(item);
+            } else {
+                writes.add(update(item, logger));
+            }
+        }
+        if (!created.isEmpty()) {
+            writes.add(create(created, releasedEmails, logger));
+        }
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Guarda empleados nuevos y la reserva de sus emails con escrituras agrupadas, sin condiciones
+     * @param created items nuevos del nivel
+     * @param releasedEmails reservas a liberar al final, por email normalizado
+     * @param logger destino de los avisos sobre reservas que no pudieron escribirse
+     * @return future que completa cuando se marcaron los items que no pudieron guardarse
+     */
+    private CompletableFuture<Void> create(List<BatchItem> created, Map<String, String> releasedEmails, LambdaLogger logger) {
+        List<Employee> employees = new ArrayList<>(created.size());
+        for (BatchItem item : created) {
+            item.employee.setDirectReportsCount(0);
+            item.employee.setVersion(1L);
+            employees.add(item.employee);
+        }
+
+        return employeeRepository.saveAll(employees).handle((written, error) -> {
+            if (error != null) {
+                logger.log("Error: " + Futures.unwrap(error).getMessage());
+            }
+            for (BatchItem item : created) {
+                String id = item.employee.getId();
+                String emailKey = Employee.emailKey(item.employee.getEmail());
+                boolean emailSaved = written != null && !written.getUnsavedEmailOwnerIds().contains(id);
+                if (written == null || written.getUnsavedEmployeeIds().contains(id)) {
+                    // Si la reserva del email pudo escribirse, se libera para poder reintentar; solo se borra si sigue siendo suya
+                    if (written == null || emailSaved) {
+                        releasedEmails.put(emailKey, id);
+                    }
+                    item.fail(503, "No se pudo guardar el empleado, reintente la operación");
+                } else if (!emailSaved) {
+                    // El empleado quedó guardado aunque su reserva no: se informa como guardado
+                    logger.log("Aviso: el email " + emailKey + " de " + id + " quedó sin reserva");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Aplica un item existente con un patch condicionado a la versión leída al validar el lote. El email se reserva
+     * y libera en la misma escritura; los contadores de reportes se ajustan al final, agrupados por supervisor
+     * @param item item existente
+     * @param logger destino de los errores inesperados
+     * @return future que completa cuando el item quedó guardado o marcado como fallido
+     */
+    private CompletableFuture<Void> update(BatchItem item, LambdaLogger logger) {
+        EmployeePatch patch = EmployeePatch.of(item.employee);
+        patch.setStored(item.stored);
+        patch.setDeferDirectReports(true);
+        return employeeRepository.patch(patch).handle((result, error) -> {
+            if (error != null) {
+                failWrite(item, Futures.unwrap(error), logger);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Marca un item según el error de su escritura o de la validación de su cambio de supervisor
+     * @param item item que falló
+     * @param cause causa del error
+     * @param logger destino de los errores inesperados
+     */
+    private static void failWrite(BatchItem item, Throwable cause, LambdaLogger logger) {
+        if (cause instanceof InvalidHierarchyException) {
+            item.fail(400, cause.getMessage());
+        } else if (cause instanceof SupervisorNotFoundException) {
+            item.fail(400, "El supervisor_id proporcionado no existe");
+        } else if (cause instanceof DuplicateEmailException) {
+            item.fail(409, "El email ya está registrado por otro empleado");
+        } else if (cause instanceof VersionMismatchException || cause instanceof EmployeeNotFoundException
+                || cause instanceof ConcurrentUpdateException) {
+            item.fail(409, "El empleado o su supervisor fueron modificados concurrentemente, reintente la operación");
+        } else {
+            logger.log("Error: " + cause.getMessage());
+            item.fail(503, "No se pudo guardar el empleado, reintente la operación");
+        }
+    }
+
+    /**
+     * Obtiene la ruta guardada de los supervisores existentes referenciados por el lote
+     * @param items items del lote
+     * @param indexById posición de cada ID en el lote
+     * @param existing empleados ya guardados
+     * @return future con la ruta de cada supervisor; los que no pudieron resolverse no aparecen
+     */
+    private CompletableFuture<Map<String, List<String>>> loadSupervisorPaths(BatchItem[] items, Map<String, Integer> indexById,
+                                                                           Map<String, Employee> existing) {
+        Map<String, CompletableFuture<List<String>>> paths = new HashMap<>();
+        for (BatchItem item : items) {
+            String supervisorId = item.employee.getSupervisor_id();
+            if (item.failed() || supervisorId == null || writtenInBatch(supervisorId, items, indexById)) {
+                continue;
+            }
+            // Solo los items guardados antes de existir la ruta requieren más lecturas
+            paths.computeIfAbsent(supervisorId, id -> supervisorChain.pathOf(existing.get(id))
+                    .exceptionally(error -> null));
+        }
+
+        return CompletableFuture.allOf(paths.values().toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, List<String>> resolved = new HashMap<>();
+            paths.forEach((id, path) -> {
+                if (path.join() != null) {
+                    resolved.put(id, path.join());
+                }
+            });
+            return resolved;
+        });
+    }
+
+    /**
+     * Calcula la ruta de ancestros de un item, resolviendo primero la de su supervisor si está en el lote
+     * @param index posición del item
+     * @param items items del lote
+     * @param indexById posición de cada ID en el lote
+     * @param supervisorPaths ruta guardada de cada supervisor que no se escribe en el lote
+     * @param visiting items en resolución, para detectar ciclos dentro del lote
+     * @return la ruta del item, o null si el item no es válido
+     */
+    private static List<String> resolveAncestors(int index, BatchItem[] items, Map<String, Integer> indexById,
+                                                 Map<String, List<String>> supervisorPaths, Set<Integer> visiting) {
+        BatchItem item = items[index];
+        if (item.failed()) {
+            return null;
+        }
+        if (item.employee.getAncestors() != null) {
+            return item.employee.getAncestors();
+        }
+        String supervisorId = item.employee.getSupervisor_id();
+        if (supervisorId == null) {
+            item.employee.setAncestors(List.of());
+            return item.employee.getAncestors();
+        }
+        if (!visiting.add(index)) {
+            item.fail(400, "La asignación crearía un ciclo en la jerarquía");
+            return null;
+        }
+
+        List<String> supervisorPath;
+        String failure;
+        Integer supervisorIndex = indexById.get(supervisorId);
+        if (supervisorIndex != null && !supervisorPaths.containsKey(supervisorId)) {
+            supervisorPath = resolveAncestors(supervisorIndex, items, indexById, supervisorPaths, visiting);
+            failure = items[supervisorIndex].message;
+        } else {
+            supervisorPath = supervisorPaths.get(supervisorId);
+            failure = "La cadena de supervisores guardada no es válida";
+        }
+        visiting.remove(index);
+        if (item.failed()) {
+            return null;
+        }
+        if (supervisorPath == null) {
+            item.fail(400, failure);
+            return null;
+        }
+
+        try {
+            item.employee.setAncestors(SupervisorChain.extend(item.employee.getId(), supervisorPath, supervisorId));
+        } catch (InvalidHierarchyException e) {
+            item.fail(400, e.getMessage());
+            return null;
+        }
+        return item.employee.getAncestors();
+    }
+
+    private static boolean writtenInBatch(String id, BatchItem[] items, Map<String, Integer> indexById) {
+        Integer index = indexById.get(id);
+        return index != null && !items[index].failed();
+    }
+
+    /**
+     * Actualiza, uno a la vez y de arriba hacia abajo, las rutas de los descendientes de los empleados existentes
+     * que cambiaron de supervisor. La ruta de cada uno se vuelve a leer, porque la de un movido debajo de otro
+     * movido la reescribe la propagación del primero
+     * @param items items del lote
+     * @param logger destino del aviso si la ruta de los descendientes no pudo actualizarse
+     * @return future que completa cuando se actualizaron todas las rutas
+     */
+    private CompletableFuture<Void> propagateMoved(BatchItem[] items, LambdaLogger logger) {
+        List<BatchItem> moved = new ArrayList<>();
+        for (BatchItem item : items) {
+            if (!item.failed() && item.moved()) {
+                moved.add(item);
+            }
+        }
+        moved.sort(Comparator.comparingInt(item -> item.employee.getAncestors().size()));
+
+        CompletableFuture<Void> propagation = CompletableFuture.completedFuture(null);
+        for (BatchItem item : moved) {
+            String id = item.employee.getId();
+            propagation = propagation.thenCompose(ignored -> employeeRepository.findById(id)
+                    .thenCompose(employee -> employee == null || employee.getAncestors() == null
+                            ? CompletableFuture.<Void>completedFuture(null)
+                            : supervisorChain.propagate(id, employee.getAncestors()))
+                    // Los empleados ya quedaron guardados: si falla la actualización de las rutas no se informa como error
+                    .handle((done, error) -> {
+                        if (error != null) {
+                            logger.log("Error: no se pudo actualizar la ruta de los descendientes de " + id
+                                    + ": " + Futures.unwrap(error).getMessage());
+                        }
+                        return null;
+                    }));
+        }
+        return propagation;
+    }
+
+    /**
+     * Valida un item del lote y le asigna su ID
+     * @param employee empleado recibido
+     * @return item del lote, marcado como fallido si no es válido
+     */
+    private static BatchItem validate(Employee employee) {
+        if (employee == null) {
+            BatchItem item = new BatchItem(new Employee(), false);
+            item.fail(400, "El nombre y el email son obligatorios");
+            return item;
+        }
+
+        // Con ID se crea o actualiza ese empleado (permite referenciarlo como supervisor dentro del lote)
+        boolean clientId = employee.getId() != null && !employee.getId().trim().isEmpty();
+        if (!clientId) {
+            employee.setId(UUID.randomUUID().toString());
+        }
+        BatchItem item = new BatchItem(employee, clientId);
+        // La ruta de ancestros la calcula el servidor
+        employee.setAncestors(null);
+
+        if (employee.getNombre() == null || employee.getNombre().trim().isEmpty() ||
+                employee.getEmail() == null || employee.getEmail().trim().isEmpty()) {
+            item.fail(400, "El nombre y el email son obligatorios");
+            return item;
+        }
+
+        String supervisorId = employee.getSupervisor_id();
+        if (supervisorId != null && supervisorId.trim().isEmpty()) {
+            employee.setSupervisor_id(null);
+        } else if (supervisorId != null && supervisorId.equals(employee.getId())) {
+            item.fail(400, "Un empleado no puede ser su propio supervisor");
+        }
+        return item;
+    }
+
+    /**
+     * Marca los items cuyo email ya está reservado por otro empleado. La verificación y la escritura no son atómicas:
+     * un email reservado entre ambas por una creación individual no se detecta
+     * @param items items del lote
+     * @param owners dueño de cada email reservado
+     */
+    private static void validateEmails(BatchItem[] items, Map<String, String> owners) {
+        for (BatchItem item : items) {
+            if (item.failed()) {
+                continue;
+            }
+            String owner = owners.get(Employee.emailKey(item.employee.getEmail()));
+            if (owner != null && !owner.equals(item.employee.getId())) {
+                item.fail(409, "El email ya está registrado por otro empleado");
+            }
+        }
+    }
+
+    /**
+     * Marca los items cuyo supervisor no existe ni se guarda en este lote; se repite hasta estabilizar
+     * porque un item inválido invalida a quienes lo tienen como supervisor
+     * @param items items del lote
+     * @param indexById posición de cada ID en el lote
+     * @param existing empleados ya guardados
+     */
+    private static void validateSupervisors(BatchItem[] items, Map<String, Integer> indexById, Map<String, Employee> existing) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BatchItem item : items) {
+                String supervisorId = item.employee.getSupervisor_id();
+                if (item.failed() || supervisorId == null || existing.containsKey(supervisorId)) {
+                    continue;
+                }
+                Integer supervisorIndex = indexById.get(supervisorId);
+                if (supervisorIndex == null || items[supervisorIndex].failed()) {
+                    item.fail(400, "El supervisor_id proporcionado no existe");
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Serializa el resultado de cada item directamente al buffer de respuesta
+     * @param items items del lote
+     * @param pretty si es true se indenta la salida
+     * @return respuesta del lote
+     */
+    private static APIGatewayProxyResponseEvent buildResponse(BatchItem[] items, boolean pretty) {
+        long succeeded = Arrays.stream(items).filter(item -> !item.failed()).count();
+
+        String body = JsonBody.write(pretty, writer -> {
+            writer.beginObject();
+            writer.name("message").value("Lote procesado");
+            writer.name("succeeded").value(succeeded);
+            writer.name("failed").value(items.length - succeeded);
+
+            writer.name("results").beginArray();
+            for (int i = 0; i < items.length; i++) {
+                BatchItem item = items[i];
+                writer.beginObject();
+                writer.name("index").value(i);
+                writer.name("id").value(item.employee.getId());
+                writer.name("status").value(item.status);
+                if (item.failed()) {
+                    writer.name("message").value(item.message);
+                } else {
+                    writer.name("message").value(item.status == 201 ? "Empleado creado correctamente" : "Empleado actualizado correctamente");
+                }
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        });
+        return ApiGatewayResponse.build(200, body);
+    }
+
+    private static final class BatchItem {
+        private final Employee employee;
+        private final boolean clientId;
+        private Employee stored;
+        private int level = -1;
+        private int status;
+        private String message;
+
+        private BatchItem(Employee employee, boolean clientId) {
+            this.employee = employee;
+            this.clientId = clientId;
+        }
+
+        private void fail(int status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+
+        private boolean failed() {
+            return message != null;
+        }
+
+        private boolean moved() {
+            return stored != null && !Objects.equals(stored.getSupervisor_id(), employee.getSupervisor_id());
+        }
+    }
+}
@@ -1,110 +1,184 @@
 package com.api.handlers;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
-import com.amazonaws.services.dynamodbv2.document.Item;
-import com.amazonaws.services.dynamodbv2.document.Table;
-import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.api.models.Employee;
+import com.api.models.EmployeePatch;
+import com.api.repositories.ConcurrentUpdateException;
+import com.api.repositories.DuplicateEmailException;
+import com.api.repositories.EmployeeNotFoundException;
+import com.api.repositories.EmployeeRepository;
+import com.api.repositories.InvalidHierarchyException;
+import com.api.repositories.SupervisorNotFoundException;
+import com.api.repositories.VersionMismatchException;
 import com.api.utils.ApiGatewayResponse;
+import com.api.utils.ETags;
+import com.api.utils.Futures;
+import com.api.utils.JsonBody;
+import com.api.utils.Metrics;
+import com.api.utils.RequestBody;
+import com.api.utils.RuntimeContext;
+import com.api.utils.SupervisorChain;
 import com.api.utils.TokenVerifier;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 import java.time.Instant;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 public class CreateUpdateEmployeeHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final AmazonDynamoDB dynamoDBClient;
-    private final DynamoDB dynamoDB;
+    private final RuntimeContext runtime;
+    private final EmployeeRepository employeeRepository;
+    private final SupervisorChain supervisorChain;
+    private final TokenVerifier tokenVerifier;
     private final Gson gson;
 
     public CreateUpdateEmployeeHandler() {
-        this.dynamoDBClient = AmazonDynamoDBClientBuilder.standard().build();
-        this.dynamoDB = new DynamoDB(dynamoDBClient);
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this(RuntimeContext.get());
+    }
+
+    public CreateUpdateEmployeeHandler(RuntimeContext runtime) {
+        this.runtime = runtime;
+        this.employeeRepository = runtime.getEmployeeRepository();
+        this.supervisorChain = new SupervisorChain(employeeRepository);
+        this.tokenVerifier = runtime.getTokenVerifier();
+        this.gson = runtime.getGson();
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        Metrics metrics = Metrics.start("CreateUpdateEmployee", request, context, runtime.logColdStart(context.getLogger()));
+        return metrics.emit(handle(request, context, metrics));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context, Metrics metrics) {
         context.getLogger().log("Received create/update employee request");
 
         try {
             // Verificar token
-            String token = request.getHeaders().get("Authorization");
-            if (token == null) {
-                token = request.getHeaders().get("authorization");
+            String header = request.getHeaders().get("Authorization");
+            String token = header != null ? header : request.getHeaders().get("authorization");
+
+            CompletableFuture<APIGatewayProxyResponseEvent> response = metrics.time("Auth", () -> tokenVerifier.verifyToken(token))
+                    .thenCompose(authResult -> {
+                        if (!(boolean) authResult.get("isValid")) {
+                            return CompletableFuture.completedFuture(
+                                    ApiGatewayResponse.message(401, (String) authResult.get("message")));
+                        }
+                        return saveEmployee(request, context.getLogger());
+                    });
+
+            return ApiGatewayResponse.encode(request, Futures.await(response, context));
+
+        } catch (TimeoutException e) {
+            context.getLogger().log("Error: se agotó el tiempo restante de la invocación");
+            return ApiGatewayResponse.message(504, "Tiempo de espera agotado");
+        } catch (Exception e) {
+            Throwable cause = Futures.unwrap(e);
+            if (cause instanceof EmployeeNotFoundException) {
+                return ApiGatewayResponse.message(404, "Empleado no encontrado");
             }
-
-            Map<String, Object> authResult = TokenVerifier.verifyToken(token);
-            if (!(boolean) authResult.get("isValid")) {
-                return ApiGatewayResponse.build(401, gson.toJson(Map.of("message", authResult.get("message"))));
+            if (cause instanceof SupervisorNotFoundException) {
+                return ApiGatewayResponse.message(400, "El supervisor_id proporcionado no existe");
             }
-
-            // Parsear solicitud
-            Employee employee = gson.fromJson(request.getBody(), Employee.class);
-
-            // Validación básica
-            if (employee.getNombre() == null || employee.getNombre().trim().isEmpty() ||
-                    employee.getEmail() == null || employee.getEmail().trim().isEmpty()) {
-                return ApiGatewayResponse.build(400, gson.toJson(Map.of("message", "El nombre y el email son obligatorios")));
+            if (cause instanceof InvalidHierarchyException) {
+                return ApiGatewayResponse.message(400, cause.getMessage());
             }
-
-            // Si se proporciona un ID, es una actualización; de lo contrario, es una creación
-            boolean isUpdate = employee.getId() != null && !employee.getId().trim().isEmpty();
-            String id = isUpdate ? employee.getId() : UUID.randomUUID().toString();
-            employee.setId(id);
-
-            // Si es una actualización, verificar que el empleado existe
-            if (isUpdate) {
-                Table employeesTable = dynamoDB.getTable("Employees");
-                GetItemSpec spec = new GetItemSpec()
-                        .withPrimaryKey("id", id);
-
-                Item existingItem = employeesTable.getItem(spec);
-                if (existingItem == null) {
-                    return ApiGatewayResponse.build(404, gson.toJson(Map.of("message", "Empleado no encontrado")));
-                }
+            if (cause instanceof VersionMismatchException) {
+                return ApiGatewayResponse.message(412, "El empleado fue modificado por otra solicitud, vuelva a leerlo y reintente");
             }
-
-            // Si se proporciona supervisor_id, verificar que existe
-            String supervisorId = employee.getSupervisor_id();
-            if (supervisorId != null && !supervisorId.trim().isEmpty()) {
-                Table employeesTable = dynamoDB.getTable("Employees");
-                GetItemSpec spec = new GetItemSpec()
-                        .withPrimaryKey("id", supervisorId);
-
-                Item supervisorItem = employeesTable.getItem(spec);
-                if (supervisorItem == null) {
-                    return ApiGatewayResponse.build(400, gson.toJson(Map.of("message", "El supervisor_id proporcionado no existe")));
-                }
+            if (cause instanceof DuplicateEmailException) {
+                return ApiGatewayResponse.message(409, "El email ya está registrado por otro empleado");
+            }
+            if (cause instanceof ConcurrentUpdateException) {
+                context.getLogger().log(cause.getMessage());
+                return ApiGatewayResponse.message(409, "El empleado o su supervisor fueron modificados concurrentemente, reintente la operación");
             }
+            context.getLogger().log("Error: " + cause.getMessage());
+            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", String.valueOf(cause.getMessage()))));
+        }
+    }
 
-            // Establecer la fecha de última actualización
-            employee.setLastUpdated(Instant.now().toString());
+    private CompletableFuture<APIGatewayProxyResponseEvent> saveEmployee(APIGatewayProxyRequestEvent request, LambdaLogger logger) {
+        // Parsear solicitud
+        Employee employee = gson.fromJson(RequestBody.text(request), Employee.class);
 
-            // Guardar en DynamoDB
-            Table employeesTable = dynamoDB.getTable("Employees");
-            employeesTable.putItem(employee.toDynamoDBItem());
+        // Validación básica
+        if (employee.getNombre() == null || employee.getNombre().trim().isEmpty() ||
+                employee.getEmail() == null || employee.getEmail().trim().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "El nombre y el email son obligatorios"));
+        }
 
-            // Construir respuesta
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("message", isUpdate ? "Empleado actualizado correctamente" : "Empleado creado correctamente");
-            responseBody.put("employee", employee.toMap());
+        // Si se proporciona un ID, es una actualización; de lo contrario, es una creación
+        boolean isUpdate = employee.getId() != null && !employee.getId().trim().isEmpty();
+        String id = isUpdate ? employee.getId() : UUID.randomUUID().toString();
+        employee.setId(id);
 
-            return ApiGatewayResponse.build(isUpdate ? 200 : 201, gson.toJson(responseBody));
+        String supervisorId = employee.getSupervisor_id();
+        if (supervisorId != null && supervisorId.trim().isEmpty()) {
+            supervisorId = null;
+            employee.setSupervisor_id(null);
+        }
+        if (supervisorId != null && supervisorId.equals(id)) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "Un empleado no puede ser su propio supervisor"));
+        }
 
-        } catch (Exception e) {
-            context.getLogger().log("Error: " + e.getMessage());
-            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", e.getMessage())));
+        // Versión esperada por el cliente (If-Match), solo aplica a actualizaciones
+        Long expectedVersion;
+        try {
+            expectedVersion = isUpdate ? ETags.parseIfMatch(ETags.header(request.getHeaders(), "If-Match")) : null;
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(412, "If-Match no corresponde a una versión del empleado"));
+        }
+
+        // Establecer la fecha de última actualización
+        employee.setLastUpdated(Instant.now().toString());
+
+        CompletableFuture<Long> saved;
+        if (isUpdate) {
+            // El contador de reportes no se lee ni se modifica al actualizar, por eso no se incluye en la respuesta
+            employee.setDirectReportsCount(null);
+            EmployeePatch patch = EmployeePatch.of(employee);
+            patch.setExpectedVersion(expectedVersion);
+            // Lee al empleado y al supervisor a la vez y escribe condicionado a la versión leída
+            saved = supervisorChain.patch(patch, logger).thenApply(version -> {
+                employee.setAncestors(patch.getAncestors());
+                return version;
+            });
+        } else {
+            // Una sola lectura del supervisor da la ruta completa: detecta ciclos sin recorrer la cadena
+            saved = supervisorChain.resolveAncestors(id, supervisorId).thenCompose(ancestors -> {
+                employee.setAncestors(ancestors);
+                employee.setDirectReportsCount(0);
+                employee.setVersion(1L);
+                // Escritura condicionada: el ID, el email y la ruta del supervisor se validan en la misma operación
+                return employeeRepository.create(employee).thenApply(ignored -> 1L);
+            });
         }
+
+        return saved.thenApply(version -> {
+            employee.setVersion(version);
+
+            // Construir respuesta
+            String body = JsonBody.write(JsonBody.isPretty(request), writer -> {
+                writer.beginObject();
+                writer.name("message").value(isUpdate ? "Empleado actualizado correctamente" : "Empleado creado correctamente");
+                writer.name("employee");
+                employee.writeTo(writer);
+                writer.endObject();
+            });
+
+            Map<String, String> headers = version != null ? Map.of("ETag", ETags.format(version)) : null;
+            return ApiGatewayResponse.build(isUpdate ? 200 : 201, body, headers);
+        });
     }
-}
\ No newline at end of file
+}
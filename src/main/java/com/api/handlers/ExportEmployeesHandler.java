@@ -0,0 +1,110 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.api.utils.DirectoryExportSink;
+import com.api.utils.EmployeeExporter;
+import com.api.utils.ExportSink;
+import com.api.utils.RuntimeContext;
+import com.api.utils.S3ExportSink;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Exportación nocturna del directorio para analítica: recorre la tabla por segmentos en paralelo y deja
+// un archivo NDJSON comprimido por segmento en S3 (EXPORT_BUCKET) o, sin bucket, en un directorio local.
+// Se invoca desde una regla programada; el evento puede redefinir "segments", "readCapacity" y "pageSize"
+public class ExportEmployeesHandler implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+
+    private static final int DEFAULT_SEGMENTS = 8;
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    // Unidades de lectura por segundo para toda la exportación, lejos de lo que usa la API
+    private static final double DEFAULT_READ_CAPACITY = 200;
+
+    private final RuntimeContext runtime;
+    private final String bucket;
+    private final String prefix;
+    private final Path directory;
+    private S3AsyncClient s3Client;
+
+    public ExportEmployeesHandler() {
+        this(RuntimeContext.get());
+    }
+
+    public ExportEmployeesHandler(RuntimeContext runtime) {
+        this.runtime = runtime;
+        this.bucket = System.getenv("EXPORT_BUCKET");
+        this.prefix = System.getenv().getOrDefault("EXPORT_PREFIX", "exports/employees/");
+        this.directory = Path.of(System.getenv().getOrDefault("EXPORT_DIRECTORY", "/tmp/employee-export"));
+    }
+
+    @Override
+    public Map<String, Object> handleRequest(Map<String, Object> event, Context context) {
+        runtime.logColdStart(context.getLogger());
+
+        int segments = (int) option(event, "segments", "EXPORT_SEGMENTS", DEFAULT_SEGMENTS);
+        int pageSize = (int) option(event, "pageSize", "EXPORT_PAGE_SIZE", DEFAULT_PAGE_SIZE);
+        double readCapacity = option(event, "readCapacity", "EXPORT_READ_CAPACITY", DEFAULT_READ_CAPACITY);
+
+        // Cada ejecución escribe en su propia carpeta, con la hora de inicio
+        String run = Instant.now().truncatedTo(ChronoUnit.SECONDS).toString();
+        ExportSink sink = bucket != null && !bucket.isEmpty()
+                ? new S3ExportSink(getS3Client(), bucket, prefix + run + "/")
+                : new DirectoryExportSink(directory.resolve(run));
+
+        context.getLogger().log(String.format(Locale.ROOT, "Exporting employees: %d segments, %.0f RCU/s, %s",
+                segments, readCapacity, sink.describe("")));
+        try {
+            EmployeeExporter.Result result = new EmployeeExporter(runtime.getEmployeeRepository(), segments, pageSize, readCapacity)
+                    .export(sink);
+            context.getLogger().log(String.format(Locale.ROOT, "Exported %d employees in %d ms (%.1f RCU)",
+                    result.getEmployees(), result.getDurationMillis(), result.getReadUnits()));
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("employees", result.getEmployees());
+            summary.put("readUnits", result.getReadUnits());
+            summary.put("durationMillis", result.getDurationMillis());
+            summary.put("files", result.getFiles());
+            return summary;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Exportación interrumpida", e);
+        } catch (Exception e) {
+            context.getLogger().log("Error: " + e.getMessage());
+            // La invocación falla para que la regla programada la reintente
+            throw new IllegalStateException("No se pudo completar la exportación: " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized S3AsyncClient getS3Client() {
+        if (s3Client == null) {
+            s3Client = S3AsyncClient.builder()
+                    .httpClientBuilder(AwsCrtAsyncHttpClient.builder())
+                    .build();
+        }
+        return s3Client;
+    }
+
+    // Valor del evento, o de la variable de entorno, o el valor por defecto
+    private static double option(Map<String, Object> event, String name, String variable, double defaultValue) {
+        Object value = event != null ? event.get(name) : null;
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        String text = value != null ? value.toString() : System.getenv(variable);
+        if (text == null || text.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " debe ser numérico: " + text, e);
+        }
+    }
+}
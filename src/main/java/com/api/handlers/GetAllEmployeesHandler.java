@@ -1,77 +1,157 @@
 package com.api.handlers;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
-import com.amazonaws.services.dynamodbv2.document.Item;
-import com.amazonaws.services.dynamodbv2.document.ItemCollection;
-import com.amazonaws.services.dynamodbv2.document.ScanOutcome;
-import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.api.models.Employee;
+import com.api.models.EmployeeFields;
+import com.api.repositories.EmployeePage;
+import com.api.repositories.EmployeeRepository;
 import com.api.utils.ApiGatewayResponse;
+import com.api.utils.Futures;
+import com.api.utils.JsonBody;
+import com.api.utils.Metrics;
+import com.api.utils.PaginationToken;
+import com.api.utils.RuntimeContext;
 import com.api.utils.TokenVerifier;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 public class GetAllEmployeesHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final AmazonDynamoDB dynamoDBClient;
-    private final DynamoDB dynamoDB;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final RuntimeContext runtime;
+    private final EmployeeRepository employeeRepository;
+    private final TokenVerifier tokenVerifier;
     private final Gson gson;
 
     public GetAllEmployeesHandler() {
-        this.dynamoDBClient = AmazonDynamoDBClientBuilder.standard().build();
-        this.dynamoDB = new DynamoDB(dynamoDBClient);
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this(RuntimeContext.get());
+    }
+
+    public GetAllEmployeesHandler(RuntimeContext runtime) {
+        this.runtime = runtime;
+        this.employeeRepository = runtime.getEmployeeRepository();
+        this.tokenVerifier = runtime.getTokenVerifier();
+        this.gson = runtime.getGson();
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        Metrics metrics = Metrics.start("GetAllEmployees", request, context, runtime.logColdStart(context.getLogger()));
+        return metrics.emit(handle(request, context, metrics));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context, Metrics metrics) {
         context.getLogger().log("Received get all employees request");
 
         try {
             // Verificar token
-            String token = request.getHeaders().get("Authorization");
-            if (token == null) {
-                token = request.getHeaders().get("authorization");
-            }
+            String header = request.getHeaders().get("Authorization");
+            String token = header != null ? header : request.getHeaders().get("authorization");
 
-            Map<String, Object> authResult = TokenVerifier.verifyToken(token);
-            if (!(boolean) authResult.get("isValid")) {
-                return ApiGatewayResponse.build(401, gson.toJson(Map.of("message", authResult.get("message"))));
-            }
+            CompletableFuture<APIGatewayProxyResponseEvent> response = metrics.time("Auth", () -> tokenVerifier.verifyToken(token))
+                    .thenCompose(authResult -> {
+                        if (!(boolean) authResult.get("isValid")) {
+                            return CompletableFuture.completedFuture(
+                                    ApiGatewayResponse.message(401, (String) authResult.get("message")));
+                        }
+                        return listEmployees(request);
+                    });
 
-            // Obtener todos los empleados
-            Table employeesTable = dynamoDB.getTable("Employees");
-            ItemCollection<ScanOutcome> items = employeesTable.scan();
+            return ApiGatewayResponse.encode(request, Futures.await(response, context));
 
-            List<Map<String, Object>> employees = new ArrayList<>();
+        } catch (TimeoutException e) {
+            context.getLogger().log("Error: se agotó el tiempo restante de la invocación");
+            return ApiGatewayResponse.message(504, "Tiempo de espera agotado");
+        } catch (Exception e) {
+            Throwable cause = Futures.unwrap(e);
+            context.getLogger().log("Error: " + cause.getMessage());
+            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", String.valueOf(cause.getMessage()))));
+        }
+    }
 
-            for (Item item : items) {
-                Employee employee = Employee.fromDynamoDBItem(item);
-                employees.add(employee.toMap());
+    private CompletableFuture<APIGatewayProxyResponseEvent> listEmployees(APIGatewayProxyRequestEvent request) {
+        // Parámetros de paginación
+        Map<String, String> queryParams = request.getQueryStringParameters();
+        String limitParam = queryParams != null ? queryParams.get("limit") : null;
+        String nextToken = queryParams != null ? queryParams.get("nextToken") : null;
+
+        int limit = DEFAULT_PAGE_SIZE;
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return CompletableFuture.completedFuture(ApiGatewayResponse.message(400, "El parámetro limit debe estar entre 1 y " + MAX_PAGE_SIZE));
             }
+        }
 
-            // Construir respuesta
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("message", "Empleados obtenidos correctamente");
-            responseBody.put("count", employees.size());
-            responseBody.put("employees", employees);
+        Map<String, String> exclusiveStartKey = null;
+        if (nextToken != null && !nextToken.isEmpty()) {
+            try {
+                exclusiveStartKey = PaginationToken.decode(nextToken);
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(ApiGatewayResponse.message(400, e.getMessage()));
+            }
+        }
 
-            return ApiGatewayResponse.build(200, gson.toJson(responseBody));
+        // Atributos pedidos (fields=id,nombre); sin el parámetro se devuelven todos
+        // salvo ancestors, que solo se incluye si se pide
+        EmployeeFields fields;
+        try {
+            fields = EmployeeFields.parse(queryParams != null ? queryParams.get("fields") : null);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ApiGatewayResponse.message(400, e.getMessage()));
+        }
 
-        } catch (Exception e) {
-            context.getLogger().log("Error: " + e.getMessage());
-            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", e.getMessage())));
+        // Búsqueda por email (email=): una lectura de la reserva y otra del empleado, sin recorrer la tabla
+        String email = queryParams != null ? queryParams.get("email") : null;
+        if (email != null) {
+            if (email.trim().isEmpty()) {
+                return CompletableFuture.completedFuture(ApiGatewayResponse.message(400, "El parámetro email no puede estar vacío"));
+            }
+            return employeeRepository.findByEmail(email, fields).thenApply(employee -> {
+                EmployeePage page = new EmployeePage(employee != null ? List.of(employee) : List.of(), null);
+                return ApiGatewayResponse.build(200, writePage(page, fields, JsonBody.isPretty(request)));
+            });
         }
+
+        // Obtener una única página de empleados
+        return employeeRepository.findPage(limit, exclusiveStartKey, fields)
+                .thenApply(page -> ApiGatewayResponse.build(200, writePage(page, fields, JsonBody.isPretty(request))));
+    }
+
+    /**
+     * Serializa la página directamente al buffer de respuesta, empleado por empleado
+     * @param page página de empleados leída
+     * @param fields atributos a escribir de cada empleado
+     * @param pretty si es true se indenta la salida
+     * @return cuerpo JSON de la respuesta
+     */
+    private static String writePage(EmployeePage page, EmployeeFields fields, boolean pretty) {
+        return JsonBody.write(pretty, writer -> {
+            writer.beginObject();
+            writer.name("message").value("Empleados obtenidos correctamente");
+
+            writer.name("employees").beginArray();
+            for (Employee employee : page.getEmployees()) {
+                employee.writeTo(writer, fields);
+            }
+            writer.endArray();
+
+            writer.name("count").value(page.getEmployees().size());
+            writer.name("nextToken").value(PaginationToken.encode(page.getLastEvaluatedKey()));
+            writer.endObject();
+        });
     }
-}
\ No newline at end of file
+}
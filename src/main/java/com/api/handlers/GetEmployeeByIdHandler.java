@@ -1,120 +1,137 @@
 package com.api.handlers;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
-import com.amazonaws.services.dynamodbv2.document.Item;
-import com.amazonaws.services.dynamodbv2.document.ItemCollection;
-import com.amazonaws.services.dynamodbv2.document.ScanOutcome;
-import com.amazonaws.services.dynamodbv2.document.Table;
-import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
-import com.amazonaws.services.dynamodbv2.document.spec.ScanSpec;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.api.models.Employee;
+import com.api.models.EmployeeFields;
+import com.api.repositories.EmployeeRepository;
 import com.api.utils.ApiGatewayResponse;
+import com.api.utils.ETags;
+import com.api.utils.Futures;
+import com.api.utils.JsonBody;
+import com.api.utils.Metrics;
+import com.api.utils.RuntimeContext;
 import com.api.utils.TokenVerifier;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 public class GetEmployeeByIdHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final AmazonDynamoDB dynamoDBClient;
-    private final DynamoDB dynamoDB;
+    private final RuntimeContext runtime;
+    private final EmployeeRepository employeeRepository;
+    private final TokenVerifier tokenVerifier;
     private final Gson gson;
 
     public GetEmployeeByIdHandler() {
-        this.dynamoDBClient = AmazonDynamoDBClientBuilder.standard().build();
-        this.dynamoDB = new DynamoDB(dynamoDBClient);
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this(RuntimeContext.get());
+    }
+
+    public GetEmployeeByIdHandler(RuntimeContext runtime) {
+        this.runtime = runtime;
+        this.employeeRepository = runtime.getEmployeeRepository();
+        this.tokenVerifier = runtime.getTokenVerifier();
+        this.gson = runtime.getGson();
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        Metrics metrics = Metrics.start("GetEmployeeById", request, context, runtime.logColdStart(context.getLogger()));
+        return metrics.emit(handle(request, context, metrics));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context, Metrics metrics) {
         context.getLogger().log("Received get employee by ID request");
 
         try {
             // Verificar token
-            String token = request.getHeaders().get("Authorization");
-            if (token == null) {
-                token = request.getHeaders().get("authorization");
-            }
-
-            Map<String, Object> authResult = TokenVerifier.verifyToken(token);
-            if (!(boolean) authResult.get("isValid")) {
-                return ApiGatewayResponse.build(401, gson.toJson(Map.of("message", authResult.get("message"))));
-            }
+            String header = request.getHeaders().get("Authorization");
+            String token = header != null ? header : request.getHeaders().get("authorization");
+
+            CompletableFuture<APIGatewayProxyResponseEvent> response = metrics.time("Auth", () -> tokenVerifier.verifyToken(token))
+                    .thenCompose(authResult -> {
+                        if (!(boolean) authResult.get("isValid")) {
+                            return CompletableFuture.completedFuture(
+                                    ApiGatewayResponse.message(401, (String) authResult.get("message")));
+                        }
+                        return getEmployee(request);
+                    });
+
+            return ApiGatewayResponse.encode(request, Futures.await(response, context));
+
+        } catch (TimeoutException e) {
+            context.getLogger().log("Error: se agotó el tiempo restante de la invocación");
+            return ApiGatewayResponse.message(504, "Tiempo de espera agotado");
+        } catch (Exception e) {
+            Throwable cause = Futures.unwrap(e);
+            context.getLogger().log("Error: " + cause.getMessage());
+            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", String.valueOf(cause.getMessage()))));
+        }
+    }
 
-            // Obtener el ID del empleado
-            String employeeId = request.getPathParameters().get("id");
-            if (employeeId == null || employeeId.trim().isEmpty()) {
-                return ApiGatewayResponse.build(400, gson.toJson(Map.of("message", "ID de empleado no proporcionado")));
-            }
+    private CompletableFuture<APIGatewayProxyResponseEvent> getEmployee(APIGatewayProxyRequestEvent request) {
+        // Obtener el ID del empleado
+        String employeeId = request.getPathParameters().get("id");
+        if (employeeId == null || employeeId.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "ID de empleado no proporcionado"));
+        }
 
-            // Obtener detalles del empleado y la cantidad de empleados a su cargo en paralelo
-            Table employeesTable = dynamoDB.getTable("Employees");
-
-            // Ejecutar ambas consultas en paralelo usando CompletableFuture
-            CompletableFuture<Item> employeeDetailsFuture = CompletableFuture.supplyAsync(() -> {
-                GetItemSpec spec = new GetItemSpec()
-                        .withPrimaryKey("id", employeeId);
-                return employeesTable.getItem(spec);
-            });
-
-            CompletableFuture<Integer> directReportsCountFuture = CompletableFuture.supplyAsync(() -> {
-                ScanSpec scanSpec = new ScanSpec()
-                        .withFilterExpression("supervisor_id = :supervisorId")
-                        .withValueMap(Map.of(":supervisorId", employeeId));
-
-                ItemCollection<ScanOutcome> result = employeesTable.scan(scanSpec);
-                int count = 0;
-                for (Item ignored : result) {
-                    count++;
-                }
-                return count;
-            });
-
-            // Esperar a que ambas consultas se completen
-            CompletableFuture<Void> allFutures = CompletableFuture.allOf(
-                    employeeDetailsFuture,
-                    directReportsCountFuture
-            );
-
-            // Esperar hasta que se completen ambas consultas
-            allFutures.get();
-
-            // Obtener los resultados
-            Item employeeItem = employeeDetailsFuture.get();
-            int directReportsCount = directReportsCountFuture.get();
+        // Atributos pedidos (fields=id,nombre); sin el parámetro se devuelven todos
+        // salvo ancestors, que solo se incluye si se pide
+        EmployeeFields fields;
+        try {
+            Map<String, String> queryParams = request.getQueryStringParameters();
+            fields = EmployeeFields.parse(queryParams != null ? queryParams.get("fields") : null);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ApiGatewayResponse.message(400, e.getMessage()));
+        }
 
+        // Obtener el empleado; la cantidad de empleados a cargo se mantiene materializada en el propio item
+        return employeeRepository.findById(employeeId, fields).thenCompose(employee -> {
+            // Los empleados guardados antes de materializar el contador no lo tienen: se cuenta en el índice y se guarda
+            if (employee != null && employee.getDirectReportsCount() == null && fields.contains("directReportsCount")) {
+                return employeeRepository.materializeDirectReports(employeeId).thenApply(count -> {
+                    employee.setDirectReportsCount(count);
+                    return employee;
+                });
+            }
+            return CompletableFuture.completedFuture(employee);
+        }).thenApply(employee -> {
             // Si el empleado no existe
-            if (employeeItem == null) {
-                return ApiGatewayResponse.build(404, gson.toJson(Map.of("message", "Empleado no encontrado")));
+            if (employee == null) {
+                return ApiGatewayResponse.message(404, "Empleado no encontrado");
             }
 
-            // Convertir el Item a un objeto Employee
-            Employee employee = Employee.fromDynamoDBItem(employeeItem);
-
-            // Agregar la cantidad de empleados a cargo
-            employee.setDirectReportsCount(directReportsCount);
-
-            // Construir respuesta
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("message", "Empleado obtenido correctamente");
-            responseBody.put("employee", employee.toMap());
+            // Si el cliente ya tiene esta versión se responde 304 sin serializar el empleado; toda escritura del item,
+            // incluidos el contador de reportes y la ruta de ancestros, incrementa la versión
+            Map<String, String> headers = Map.of("ETag", ETags.format(employee.getVersion()));
+            if (ETags.matchesIfNoneMatch(ETags.header(request.getHeaders(), "If-None-Match"), employee.getVersion())) {
+                return ApiGatewayResponse.build(304, null, headers);
+            }
 
-            return ApiGatewayResponse.build(200, gson.toJson(responseBody));
+            return ApiGatewayResponse.build(200, writeEmployee(employee, fields, JsonBody.isPretty(request)), headers);
+        });
+    }
 
-        } catch (Exception e) {
-            context.getLogger().log("Error: " + e.getMessage());
-            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", e.getMessage())));
-        }
+    /**
+     * Serializa la respuesta directamente al buffer, con solo los atributos pedidos
+     * @param employee empleado leído
+     * @param fields atributos a escribir
+     * @param pretty si es true se indenta la salida
+     * @return cuerpo JSON de la respuesta
+     */
+    private static String writeEmployee(Employee employee, EmployeeFields fields, boolean pretty) {
+        return JsonBody.write(pretty, writer -> {
+            writer.beginObject();
+            writer.name("message").value("Empleado obtenido correctamente");
+            writer.name("employee");
+            employee.writeTo(writer, fields);
+            writer.endObject();
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.models.Employee;
+import com.api.models.Subtree;
+import com.api.utils.ApiGatewayResponse;
+import com.api.utils.Futures;
+import com.api.utils.JsonBody;
+import com.api.utils.Metrics;
+import com.api.utils.OrgChartTraversal;
+import com.api.utils.RuntimeContext;
+import com.api.utils.TokenVerifier;
+import com.google.gson.Gson;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+public class GetEmployeeSubtreeHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private static final int DEFAULT_MAX_DEPTH = 5;
+    private static final int MAX_DEPTH = 20;
+    private static final int DEFAULT_MAX_SIZE = 500;
+    private static final int MAX_SIZE = 5000;
+
+    private final RuntimeContext runtime;
+    private final OrgChartTraversal traversal;
+    private final TokenVerifier tokenVerifier;
+    private final Gson gson;
+
+    public GetEmployeeSubtreeHandler() {
+        this(RuntimeContext.get());
+    }
+
+    public GetEmployeeSubtreeHandler(RuntimeContext runtime) {
+        this.runtime = runtime;
+        this.traversal = new OrgChartTraversal(runtime.getEmployeeRepository());
+        this.tokenVerifier = runtime.getTokenVerifier();
+        this.gson = runtime.getGson();
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        Metrics metrics = Metrics.start("GetEmployeeSubtree", request, context, runtime.logColdStart(context.getLogger()));
+        return metrics.emit(handle(request, context, metrics));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context, Metrics metrics) {
+        context.getLogger().log("Received get employee subtree request");
+
+        try {
+            // Verificar token
+            String header = request.getHeaders().get("Authorization");
+            String token = header != null ? header : request.getHeaders().get("authorization");
+
+            CompletableFuture<APIGatewayProxyResponseEvent> response = metrics.time("Auth", () -> tokenVerifier.verifyToken(token))
+                    .thenCompose(authResult -> {
+                        if (!(boolean) authResult.get("isValid")) {
+                            return CompletableFuture.completedFuture(
+                                    ApiGatewayResponse.message(401, (String) authResult.get("message")));
+                        }
+                        return getSubtree(request);
+                    });
+
+            return ApiGatewayResponse.encode(request, Futures.await(response, context));
+
+        } catch (TimeoutException e) {
+            context.getLogger().log("Error: se agotó el tiempo restante de la invocación");
+            return ApiGatewayResponse.message(504, "Tiempo de espera agotado");
+        } catch (Exception e) {
+            Throwable cause = Futures.unwrap(e);
+            context.getLogger().log("Error: " + cause.getMessage());
+            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", String.valueOf(cause.getMessage()))));
+        }
+    }
+
+    private CompletableFuture<APIGatewayProxyResponseEvent> getSubtree(APIGatewayProxyRequestEvent request) {
+        // Obtener el ID del empleado raíz
+        String employeeId = request.getPathParameters() != null ? request.getPathParameters().get("id") : null;
+        if (employeeId == null || employeeId.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "ID de empleado no proporcionado"));
+        }
+
+        // Límites del recorrido
+        Map<String, String> queryParams = request.getQueryStringParameters();
+        int maxDepth = parseLimit(queryParams, "maxDepth", DEFAULT_MAX_DEPTH, MAX_DEPTH);
+        int maxSize = parseLimit(queryParams, "maxSize", DEFAULT_MAX_SIZE, MAX_SIZE);
+        if (maxDepth < 0) {
+            return CompletableFuture.completedFuture(ApiGatewayResponse.message(400, "El parámetro maxDepth debe estar entre 1 y " + MAX_DEPTH));
+        }
+        if (maxSize < 0) {
+            return CompletableFuture.completedFuture(ApiGatewayResponse.message(400, "El parámetro maxSize debe estar entre 1 y " + MAX_SIZE));
+        }
+        boolean countsOnly = queryParams != null && "true".equalsIgnoreCase(queryParams.get("countsOnly"));
+
+        return traversal.traverse(employeeId, maxDepth, maxSize, countsOnly).thenApply(subtree -> {
+            // Si el empleado no existe
+            if (subtree == null) {
+                return ApiGatewayResponse.message(404, "Empleado no encontrado");
+            }
+            return ApiGatewayResponse.build(200, writeSubtree(subtree, countsOnly, JsonBody.isPretty(request)));
+        });
+    }
+
+    /**
+     * Lee un parámetro numérico de la query
+     * @param queryParams parámetros de la solicitud (puede ser null)
+     * @param name nombre del parámetro
+     * @param defaultValue valor si no se envió
+     * @param max valor máximo admitido
+     * @return el valor, o -1 si no es válido
+     */
+    private static int parseLimit(Map<String, String> queryParams, String name, int defaultValue, int max) {
+        String value = queryParams != null ? queryParams.get(name) : null;
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            return parsed >= 1 && parsed <= max ? parsed : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Serializa el subárbol agrupado por nivel, directamente al buffer de respuesta
+     * @param subtree resultado del recorrido
+     * @param countsOnly si es true se omiten los empleados de cada nivel
+     * @param pretty si es true se indenta la salida
+     * @return cuerpo JSON de la respuesta
+     */
+    private static String writeSubtree(Subtree subtree, boolean countsOnly, boolean pretty) {
+        return JsonBody.write(pretty, writer -> {
+            writer.beginObject();
+            writer.name("message").value("Subárbol obtenido correctamente");
+
+            writer.name("root");
+            subtree.getRoot().writeTo(writer);
+
+            writer.name("count").value(subtree.getTotalCount());
+            writer.name("truncated").value(subtree.isTruncated());
+
+            if (!subtree.getCycles().isEmpty()) {
+                writer.name("cycles").beginArray();
+                for (String id : subtree.getCycles()) {
+                    writer.value(id);
+                }
+                writer.endArray();
+            }
+
+            // Los empleados vienen ordenados por nivel: se agrupan en un solo recorrido
+            writer.name("levels").beginArray();
+            int index = 0;
+            for (int level = 0; level < subtree.getLevelCounts().size(); level++) {
+                int depth = level + 1;
+                writer.beginObject();
+                writer.name("depth").value(depth);
+                writer.name("count").value(subtree.getLevelCounts().get(level));
+                if (!countsOnly) {
+                    writer.name("employees").beginArray();
+                    while (index < subtree.getEmployees().size()) {
+                        Employee employee = subtree.getEmployees().get(index);
+                        if (subtree.getDepthById().get(employee.getId()) != depth) {
+                            break;
+                        }
+                        employee.writeTo(writer);
+                        index++;
+                    }
+                    writer.endArray();
+                }
+                writer.endObject();
+            }
+            writer.endArray();
+
+            writer.endObject();
+        });
+    }
+}
@@ -1,44 +1,57 @@
 package com.api.handlers;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
-import com.amazonaws.services.dynamodbv2.document.Item;
-import com.amazonaws.services.dynamodbv2.document.Table;
-import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.api.models.LoginRequest;
+import com.api.models.Token;
+import com.api.models.User;
+import com.api.repositories.TokenRepository;
+import com.api.repositories.UserRepository;
 import com.api.utils.ApiGatewayResponse;
+import com.api.utils.Futures;
+import com.api.utils.JsonBody;
+import com.api.utils.Metrics;
+import com.api.utils.RequestBody;
+import com.api.utils.RuntimeContext;
 import com.api.utils.TokenGenerator;
+import com.api.utils.TokenSigner;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final AmazonDynamoDB dynamoDBClient;
-    private final DynamoDB dynamoDB;
+    private final RuntimeContext runtime;
+    private final UserRepository userRepository;
+    private final TokenRepository tokenRepository;
     private final Gson gson;
 
     public LoginHandler() {
-        this.dynamoDBClient = AmazonDynamoDBClientBuilder.standard().build();
-        this.dynamoDB = new DynamoDB(dynamoDBClient);
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this(RuntimeContext.get());
+    }
+
+    public LoginHandler(RuntimeContext runtime) {
+        this.runtime = runtime;
+        this.userRepository = runtime.getUserRepository();
+        this.tokenRepository = runtime.getTokenRepository();
+        this.gson = runtime.getGson();
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        Metrics metrics = Metrics.start("Login", request, context, runtime.logColdStart(context.getLogger()));
+        return metrics.emit(handle(request, context, metrics));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context, Metrics metrics) {
         context.getLogger().log("Received login request");
 
         try {
             // Parse request body
-            LoginRequest loginRequest = gson.fromJson(request.getBody(), LoginRequest.class);
+            LoginRequest loginRequest = gson.fromJson(RequestBody.text(request), LoginRequest.class);
 
             // Validate request
             if (loginRequest.getUsername() == null || loginRequest.getPassword() == null) {
@@ -48,44 +61,53 @@ public class LoginHandler implements RequestHandler<APIGatewayProxyRequestEvent,
             // Get expiration time (default 5 minutes)
             int expirationMinutes = loginRequest.getExpirationMinutes() != null ? loginRequest.getExpirationMinutes() : 5;
 
-            // Check if user exists
-            Table usersTable = dynamoDB.getTable("Users");
-            GetItemSpec spec = new GetItemSpec()
-                    .withPrimaryKey("username", loginRequest.getUsername());
+            // Check if user exists, then issue the token
+            CompletableFuture<APIGatewayProxyResponseEvent> response = metrics.time("UserLookup", () -> userRepository.findByUsername(loginRequest.getUsername()))
+                    .thenCompose(user -> issueToken(user, loginRequest, expirationMinutes, metrics));
 
-            Item userItem = usersTable.getItem(spec);
+            return ApiGatewayResponse.encode(request, Futures.await(response, context));
 
-            // If user doesn't exist or password doesn't match
-            if (userItem == null || !userItem.getString("password").equals(loginRequest.getPassword())) {
-                return ApiGatewayResponse.build(401, "Credenciales inválidas");
-            }
-
-            // Generate token
-            String token = TokenGenerator.generateToken();
-            long expirationTime = TokenGenerator.calculateExpirationTime(expirationMinutes);
-            String userId = userItem.getString("id");
+        } catch (TimeoutException e) {
+            context.getLogger().log("Error: timeout waiting for DynamoDB");
+            return ApiGatewayResponse.build(504, "Tiempo de espera agotado");
+        } catch (Exception e) {
+            Throwable cause = Futures.unwrap(e);
+            context.getLogger().log("Error: " + cause.getMessage());
+            return ApiGatewayResponse.build(500, "Error interno del servidor: " + cause.getMessage());
+        }
+    }
 
-            // Save token to DynamoDB
-            Table tokensTable = dynamoDB.getTable("Tokens");
-            Item tokenItem = new Item()
-                    .withPrimaryKey("token", token)
-                    .withString("username", loginRequest.getUsername())
-                    .withString("userId", userId)
-                    .withNumber("expiresAt", expirationTime);
+    private CompletableFuture<APIGatewayProxyResponseEvent> issueToken(User user, LoginRequest loginRequest, int expirationMinutes, Metrics metrics) {
+        // If user doesn't exist or password doesn't match
+        if (user == null || !loginRequest.getPassword().equals(user.getPassword())) {
+            return CompletableFuture.completedFuture(ApiGatewayResponse.build(401, "Credenciales inválidas"));
+        }
 
-            tokensTable.putItem(tokenItem);
+        long expirationTime = TokenGenerator.calculateExpirationTime(expirationMinutes);
+        String userId = user.getId();
+        String token;
+        CompletableFuture<Void> saved;
+
+        if (TokenSigner.isSignedMode()) {
+            // Self-contained token: nothing to store
+            token = TokenGenerator.generateSignedToken(userId, loginRequest.getUsername(), expirationTime);
+            saved = CompletableFuture.completedFuture(null);
+        } else {
+            // Generate opaque token and save it to DynamoDB
+            token = TokenGenerator.generateToken();
+            Token stored = new Token(token, loginRequest.getUsername(), userId, expirationTime);
+            saved = metrics.time("TokenSave", () -> tokenRepository.save(stored));
+        }
 
+        return saved.thenApply(ignored -> {
             // Build response
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("token", token);
-            responseBody.put("expiresAt", expirationTime);
-            responseBody.put("expirationMinutes", expirationMinutes);
-
-            return ApiGatewayResponse.build(200, gson.toJson(responseBody));
-
-        } catch (Exception e) {
-            context.getLogger().log("Error: " + e.getMessage());
-            return ApiGatewayResponse.build(500, "Error interno del servidor: " + e.getMessage());
-        }
+            String body = JsonBody.write(writer -> writer.beginObject()
+                    .name("token").value(token)
+                    .name("expiresAt").value(expirationTime)
+                    .name("expirationMinutes").value(expirationMinutes)
+                    .endObject());
+
+            return ApiGatewayResponse.build(200, body);
+        });
     }
-}
\ No newline at end of file
+}
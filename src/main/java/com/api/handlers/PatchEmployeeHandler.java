@@ -0,0 +1,200 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.models.EmployeePatch;
+import com.api.repositories.ConcurrentUpdateException;
+import com.api.repositories.DuplicateEmailException;
+import com.api.repositories.EmployeeNotFoundException;
+import com.api.repositories.EmployeeRepository;
+import com.api.repositories.EmployeeWriteResult;
+import com.api.repositories.InvalidHierarchyException;
+import com.api.repositories.SupervisorNotFoundException;
+import com.api.repositories.VersionMismatchException;
+import com.api.utils.ApiGatewayResponse;
+import com.api.utils.ETags;
+import com.api.utils.Futures;
+import com.api.utils.JsonBody;
+import com.api.utils.Metrics;
+import com.api.utils.RequestBody;
+import com.api.utils.RuntimeContext;
+import com.api.utils.SupervisorChain;
+import com.api.utils.TokenVerifier;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+public class PatchEmployeeHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private final RuntimeContext runtime;
+    private final EmployeeRepository employeeRepository;
+    private final SupervisorChain supervisorChain;
+    private final TokenVerifier tokenVerifier;
+    private final Gson gson;
+
+    public PatchEmployeeHandler() {
+        this(RuntimeContext.get());
+    }
+
+    public PatchEmployeeHandler(RuntimeContext runtime) {
+        this.runtime = runtime;
+        this.employeeRepository = runtime.getEmployeeRepository();
+        this.supervisorChain = new SupervisorChain(employeeRepository);
+        this.tokenVerifier = runtime.getTokenVerifier();
+        this.gson = runtime.getGson();
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        Metrics metrics = Metrics.start("PatchEmployee", request, context, runtime.logColdStart(context.getLogger()));
+        return metrics.emit(handle(request, context, metrics));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent request, Context context, Metrics metrics) {
+        context.getLogger().log("Received patch employee request");
+
+        try {
+            // Verificar token
+            String header = request.getHeaders().get("Authorization");
+            String token = header != null ? header : request.getHeaders().get("authorization");
+
+            CompletableFuture<APIGatewayProxyResponseEvent> response = metrics.time("Auth", () -> tokenVerifier.verifyToken(token))
+                    .thenCompose(authResult -> {
+                        if (!(boolean) authResult.get("isValid")) {
+                            return CompletableFuture.completedFuture(
+                                    ApiGatewayResponse.message(401, (String) authResult.get("message")));
+                        }
+                        return patchEmployee(request, context.getLogger());
+                    });
+
+            return ApiGatewayResponse.encode(request, Futures.await(response, context));
+
+        } catch (TimeoutException e) {
+            context.getLogger().log("Error: se agotó el tiempo restante de la invocación");
+            return ApiGatewayResponse.message(504, "Tiempo de espera agotado");
+        } catch (Exception e) {
+            Throwable cause = Futures.unwrap(e);
+            if (cause instanceof EmployeeNotFoundException) {
+                return ApiGatewayResponse.message(404, "Empleado no encontrado");
+            }
+            if (cause instanceof SupervisorNotFoundException) {
+                return ApiGatewayResponse.message(400, "El supervisor_id proporcionado no existe");
+            }
+            if (cause instanceof InvalidHierarchyException) {
+                return ApiGatewayResponse.message(400, cause.getMessage());
+            }
+            if (cause instanceof VersionMismatchException) {
+                return ApiGatewayResponse.message(412, "El empleado fue modificado por otra solicitud, vuelva a leerlo y reintente");
+            }
+            if (cause instanceof DuplicateEmailException) {
+                return ApiGatewayResponse.message(409, "El email ya está registrado por otro empleado");
+            }
+            if (cause instanceof ConcurrentUpdateException) {
+                context.getLogger().log(cause.getMessage());
+                return ApiGatewayResponse.message(409, "El empleado o su supervisor fueron modificados concurrentemente, reintente la operación");
+            }
+            context.getLogger().log("Error: " + cause.getMessage());
+            return ApiGatewayResponse.build(500, gson.toJson(Map.of("message", "Error interno del servidor", "error", String.valueOf(cause.getMessage()))));
+        }
+    }
+
+    private CompletableFuture<APIGatewayProxyResponseEvent> patchEmployee(APIGatewayProxyRequestEvent request, LambdaLogger logger) {
+        // Obtener el ID del empleado
+        String employeeId = request.getPathParameters() != null ? request.getPathParameters().get("id") : null;
+        if (employeeId == null || employeeId.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "ID de empleado no proporcionado"));
+        }
+
+        // Parsear solicitud conservando qué campos vinieron, para distinguir "ausente" de "null"
+        JsonObject body;
+        try {
+            body = gson.fromJson(RequestBody.text(request), JsonObject.class);
+        } catch (JsonParseException e) {
+            body = null;
+        }
+        if (body == null) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "Se esperaba un objeto JSON"));
+        }
+
+        EmployeePatch patch = new EmployeePatch(employeeId);
+        try {
+            if (body.has("nombre")) {
+                patch.setNombre(requiredString(body.get("nombre")));
+            }
+            if (body.has("email")) {
+                patch.setEmail(requiredString(body.get("email")));
+            }
+            if (body.has("supervisor_id")) {
+                JsonElement supervisor = body.get("supervisor_id");
+                String supervisorId = supervisor.isJsonNull() ? null : supervisor.getAsString().trim();
+                // null o vacío quita el supervisor
+                patch.setSupervisor_id(supervisorId == null || supervisorId.isEmpty() ? null : supervisorId);
+            }
+        } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException e) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "El nombre y el email no pueden quedar vacíos"));
+        }
+
+        if (!patch.hasChanges()) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "No se proporcionaron campos para actualizar"));
+        }
+        if (employeeId.equals(patch.getSupervisor_id())) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(400, "Un empleado no puede ser su propio supervisor"));
+        }
+
+        // Versión esperada por el cliente (If-Match)
+        try {
+            patch.setExpectedVersion(ETags.parseIfMatch(ETags.header(request.getHeaders(), "If-Match")));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                    ApiGatewayResponse.message(412, "If-Match no corresponde a una versión del empleado"));
+        }
+
+        // Establecer la fecha de última actualización
+        patch.setLastUpdated(Instant.now().toString());
+
+        // Solo un supervisor en el patch requiere leer al empleado y al nuevo supervisor, en paralelo, para calcular la ruta
+        CompletableFuture<Long> saved;
+        if (patch.isSupervisorPresent()) {
+            saved = supervisorChain.patch(patch, logger);
+        } else {
+            // Se escriben solo los campos recibidos; el resto del item y sus contadores no se tocan
+            saved = employeeRepository.patch(patch).thenApply(EmployeeWriteResult::getVersion);
+        }
+
+        return saved.thenApply(version -> {
+            // Construir respuesta
+            String responseBody = JsonBody.write(JsonBody.isPretty(request), writer -> {
+                writer.beginObject();
+                writer.name("message").value("Empleado actualizado correctamente");
+                writer.name("employee");
+                patch.writeTo(writer, version);
+                writer.endObject();
+            });
+
+            Map<String, String> headers = version != null ? Map.of("ETag", ETags.format(version)) : null;
+            return ApiGatewayResponse.build(200, responseBody, headers);
+        });
+    }
+
+    private static String requiredString(JsonElement element) {
+        String value = element.isJsonNull() ? null : element.getAsString();
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Valor vacío");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,49 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.utils.ApiGatewayResponse;
+import com.api.utils.RuntimeContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class RouterHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private final Map<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> routes;
+
+    public RouterHandler() {
+        this(RuntimeContext.get());
+    }
+
+    public RouterHandler(RuntimeContext runtime) {
+        // Todas las rutas comparten la misma función, JVM, clientes y cachés
+        this.routes = new HashMap<>();
+        routes.put(routeKey("POST", "/login"), new LoginHandler(runtime));
+        routes.put(routeKey("POST", "/employees"), new CreateUpdateEmployeeHandler(runtime));
+        routes.put(routeKey("POST", "/employees/batch"), new BatchCreateUpdateEmployeesHandler(runtime));
+        routes.put(routeKey("GET", "/employees"), new GetAllEmployeesHandler(runtime));
+        routes.put(routeKey("GET", "/employees/{id}"), new GetEmployeeByIdHandler(runtime));
+        routes.put(routeKey("PATCH", "/employees/{id}"), new PatchEmployeeHandler(runtime));
+        routes.put(routeKey("GET", "/employees/{id}/subtree"), new GetEmployeeSubtreeHandler(runtime));
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent request, Context context) {
+        RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler =
+                routes.get(routeKey(request.getHttpMethod(), request.getResource()));
+
+        if (handler == null) {
+            context.getLogger().log("No route for " + request.getHttpMethod() + " " + request.getResource());
+            return ApiGatewayResponse.message(404, "Ruta no encontrada");
+        }
+
+        return handler.handleRequest(request, context);
+    }
+
+    private static String routeKey(String httpMethod, String resource) {
+        return httpMethod + " " + resource;
+    }
+}
@@ -1,10 +1,14 @@
 package com.api.models;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
-import com.amazonaws.services.dynamodbv2.document.Item;
+import com.google.gson.stream.JsonWriter;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 public class Employee {
     private String id;
@@ -13,6 +17,8 @@ public class Employee {
     private String supervisor_id;
     private String lastUpdated;
     private Integer directReportsCount;
+    private Long version;
+    private List<String> ancestors;
 
     public Employee() {
     }
@@ -26,38 +32,96 @@ public class Employee {
     }
 
     // Constructor a partir de un Item de DynamoDB
-    public static Employee fromDynamoDBItem(Item item) {
+    public static Employee fromDynamoDBItem(Map<String, AttributeValue> item) {
         if (item == null) {
             return null;
         }
 
         Employee employee = new Employee();
-        employee.setId(item.getString("id"));
-        employee.setNombre(item.getString("nombre"));
-        employee.setEmail(item.getString("email"));
-        employee.setSupervisor_id(item.getString("supervisor_id"));
-        employee.setLastUpdated(item.getString("lastUpdated"));
+        employee.setId(getString(item, "id"));
+        employee.setNombre(getString(item, "nombre"));
+        employee.setEmail(getString(item, "email"));
+        employee.setSupervisor_id(getString(item, "supervisor_id"));
+        employee.setLastUpdated(getString(item, "lastUpdated"));
+
+        AttributeValue directReportsCount = item.get("directReportsCount");
+        if (directReportsCount != null && directReportsCount.n() != null) {
+            employee.setDirectReportsCount(Integer.parseInt(directReportsCount.n()));
+        }
+
+        // Los items anteriores al control de versiones se consideran versión 0
+        AttributeValue version = item.get("version");
+        employee.setVersion(version != null && version.n() != null ? Long.parseLong(version.n()) : 0L);
+
+        AttributeValue ancestors = item.get("ancestors");
+        if (ancestors != null && ancestors.hasL()) {
+            List<String> path = new ArrayList<>(ancestors.l().size());
+            for (AttributeValue ancestor : ancestors.l()) {
+                path.add(ancestor.s());
+            }
+            employee.setAncestors(path);
+        }
 
         return employee;
     }
 
     // Convertir a Item de DynamoDB
-    public Item toDynamoDBItem() {
-        Item item = new Item()
-                .withPrimaryKey("id", this.id)
-                .withString("nombre", this.nombre)
-                .withString("email", this.email)
-                .withString("lastUpdated", Instant.now().toString());
+    public Map<String, AttributeValue> toDynamoDBItem() {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", AttributeValue.fromS(this.id));
+        item.put("nombre", AttributeValue.fromS(this.nombre));
+        item.put("email", AttributeValue.fromS(this.email));
+        if (this.lastUpdated != null) {
+            item.put("lastUpdated", AttributeValue.fromS(this.lastUpdated));
+        }
 
+        // supervisor_id es clave del índice supervisor_id-index: se omite en lugar de guardarlo como NULL
         if (this.supervisor_id != null && !this.supervisor_id.isEmpty()) {
-            item.withString("supervisor_id", this.supervisor_id);
-        } else {
-            item.withNull("supervisor_id");
+            item.put("supervisor_id", AttributeValue.fromS(this.supervisor_id));
+        }
+
+        if (this.directReportsCount != null) {
+            item.put("directReportsCount", AttributeValue.fromN(Integer.toString(this.directReportsCount)));
+        }
+
+        if (this.version != null) {
+            item.put("version", AttributeValue.fromN(Long.toString(this.version)));
+        }
+
+        if (this.ancestors != null) {
+            item.put("ancestors", toAttributeValue(this.ancestors));
         }
 
         return item;
     }
 
+    /**
+     * Convierte una ruta de ancestros a lista de DynamoDB
+     * @param ancestors IDs desde la raíz hasta el supervisor directo
+     * @return atributo de tipo L
+     */
+    public static AttributeValue toAttributeValue(List<String> ancestors) {
+        List<AttributeValue> values = new ArrayList<>(ancestors.size());
+        for (String ancestor : ancestors) {
+            values.add(AttributeValue.fromS(ancestor));
+        }
+        return AttributeValue.fromL(values);
+    }
+
+    /**
+     * Forma normalizada de un email, con la que se verifica que sea único y se busca al empleado
+     * @param email email tal como lo envió el cliente
+     * @return email sin espacios alrededor y en minúsculas
+     */
+    public static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String getString(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value != null ? value.s() : null;
+    }
+
     // Getters y Setters
     public String getId() {
         return id;
@@ -107,19 +171,65 @@ public class Employee {
         this.directReportsCount = directReportsCount;
     }
 
-    // Convertir a Map para respuesta JSON
-    public Map<String, Object> toMap() {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", this.id);
-        map.put("nombre", this.nombre);
-        map.put("email", this.email);
-        map.put("supervisor_id", this.supervisor_id);
-        map.put("lastUpdated", this.lastUpdated);
+    public Long getVersion() {
+        return version;
+    }
 
-        if (this.directReportsCount != null) {
-            map.put("directReportsCount", this.directReportsCount);
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    // IDs de los supervisores desde la raíz hasta el supervisor directo (null en items anteriores a la ruta)
+    public List<String> getAncestors() {
+        return ancestors;
+    }
+
+    public void setAncestors(List<String> ancestors) {
+        this.ancestors = ancestors;
+    }
+
+    // Escribir directamente como objeto JSON, sin pasar por un Map intermedio (sin la ruta de ancestros)
+    public void writeTo(JsonWriter writer) throws IOException {
+        writeTo(writer, EmployeeFields.DEFAULT);
+    }
+
+    /**
+     * Escribe solo los atributos pedidos; los que no se leyeron (null) se omiten igual que con Gson
+     * @param writer destino, con serializeNulls desactivado
+     * @param fields atributos a escribir
+     */
+    public void writeTo(JsonWriter writer, EmployeeFields fields) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(this.id);
+        if (fields.contains("nombre")) {
+            writer.name("nombre").value(this.nombre);
+        }
+        if (fields.contains("email")) {
+            writer.name("email").value(this.email);
+        }
+        if (fields.contains("supervisor_id")) {
+            writer.name("supervisor_id").value(this.supervisor_id);
+        }
+        if (fields.contains("lastUpdated")) {
+            writer.name("lastUpdated").value(this.lastUpdated);
+        }
+
+        if (this.directReportsCount != null && fields.contains("directReportsCount")) {
+            writer.name("directReportsCount").value(this.directReportsCount);
+        }
+
+        if (this.version != null && fields.contains("version")) {
+            writer.name("version").value(this.version);
+        }
+
+        if (this.ancestors != null && fields.contains("ancestors")) {
+            writer.name("ancestors").beginArray();
+            for (String ancestor : this.ancestors) {
+                writer.value(ancestor);
+            }
+            writer.endArray();
         }
 
-        return map;
+        writer.endObject();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.api.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Conjunto de atributos de un empleado pedidos por el cliente (parámetro fields=)
+public class EmployeeFields {
+
+    // Atributos admitidos, en el orden en que se serializan
+    private static final List<String> NAMES = List.of(
+            "id", "nombre", "email", "supervisor_id", "lastUpdated", "directReportsCount", "version", "ancestors");
+
+    // id identifica al empleado y version da el ETag: se leen siempre
+    private static final int REQUIRED = bit("id") | bit("version");
+
+    private static final int ALL_MASK = (1 << 8) - 1;
+
+    public static final EmployeeFields ALL = new EmployeeFields(ALL_MASK);
+
+    // Lo que se devuelve sin el parámetro fields: la ruta de ancestros es interna y solo se
+    // incluye cuando se pide explícitamente con fields=ancestors
+    public static final EmployeeFields DEFAULT = new EmployeeFields(ALL_MASK & ~bit("ancestors"));
+
+    private final int mask;
+    private final String projectionExpression;
+    private final Map<String, String> expressionAttributeNames;
+
+    private EmployeeFields(int mask) {
+        this.mask = mask;
+        if (mask == ALL_MASK) {
+            this.projectionExpression = null;
+            this.expressionAttributeNames = null;
+            return;
+        }
+
+        // Todos los nombres se referencian con # para no chocar con palabras reservadas de DynamoDB
+        List<String> placeholders = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        for (int i = 0; i < NAMES.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                placeholders.add("#f" + i);
+                names.put("#f" + i, NAMES.get(i));
+            }
+        }
+        this.projectionExpression = String.join(", ", placeholders);
+        this.expressionAttributeNames = names;
+    }
+
+    /**
+     * Interpreta el parámetro fields
+     * @param value lista separada por comas (null o vacía para todos los atributos salvo ancestors)
+     * @return atributos pedidos, incluyendo siempre id y version
+     * @throws IllegalArgumentException si se pide un atributo desconocido
+     */
+    public static EmployeeFields parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT;
+        }
+        int mask = REQUIRED;
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!NAMES.contains(trimmed)) {
+                throw new IllegalArgumentException("El campo " + trimmed + " no existe");
+            }
+            mask |= bit(trimmed);
+        }
+        return mask == ALL_MASK ? ALL : new EmployeeFields(mask);
+    }
+
+    /**
+     * Agrega un atributo al conjunto, por ejemplo uno que se necesita para verificar el item leído
+     * @param name nombre del atributo
+     * @return conjunto con el atributo incluido
+     */
+    public EmployeeFields with(String name) {
+        int added = mask | bit(name);
+        if (added == mask) {
+            return this;
+        }
+        return added == ALL_MASK ? ALL : new EmployeeFields(added);
+    }
+
+    private static int bit(String name) {
+        return 1 << NAMES.indexOf(name);
+    }
+
+    public boolean contains(String name) {
+        int index = NAMES.indexOf(name);
+        return index >= 0 && (mask & (1 << index)) != 0;
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    // Expresión de proyección para DynamoDB, o null si se leen todos los atributos
+    public String getProjectionExpression() {
+        return projectionExpression;
+    }
+
+    public Map<String, String> getExpressionAttributeNames() {
+        return expressionAttributeNames;
+    }
+}
@@ -0,0 +1,166 @@
+package com.api.models;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.gson.stream.JsonWriter;
+
+// Cambios parciales sobre un empleado: solo se escriben los campos presentes
+public class EmployeePatch {
+
+    // Versión esperada que solo exige que el item exista (If-Match: *)
+    public static final long ANY_VERSION = -1;
+
+    private final String id;
+    private String nombre;
+    private String email;
+    private String supervisor_id;
+    private boolean supervisorPresent;
+    private String lastUpdated;
+    private Long expectedVersion;
+    private List<String> ancestors;
+    private Employee stored;
+    private boolean deferDirectReports;
+
+    public EmployeePatch(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Construye un patch con todos los campos editables del empleado, equivalente a reemplazarlos
+     * @param employee empleado con los nuevos valores
+     * @return patch completo
+     */
+    public static EmployeePatch of(Employee employee) {
+        EmployeePatch patch = new EmployeePatch(employee.getId());
+        patch.setNombre(employee.getNombre());
+        patch.setEmail(employee.getEmail());
+        patch.setSupervisor_id(employee.getSupervisor_id());
+        patch.setLastUpdated(employee.getLastUpdated());
+        patch.setAncestors(employee.getAncestors());
+        return patch;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getSupervisor_id() {
+        return supervisor_id;
+    }
+
+    /**
+     * Incluye el supervisor en el patch; null indica que se debe quitar
+     * @param supervisor_id nuevo supervisor, o null para quitarlo
+     */
+    public void setSupervisor_id(String supervisor_id) {
+        this.supervisor_id = supervisor_id;
+        this.supervisorPresent = true;
+    }
+
+    public boolean isSupervisorPresent() {
+        return supervisorPresent;
+    }
+
+    public String getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(String lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /**
+     * Condiciona la escritura a la versión guardada (If-Match); null para no verificarla
+     * @param expectedVersion versión que debe tener el item
+     */
+    public void setExpectedVersion(Long expectedVersion) {
+        this.expectedVersion = expectedVersion;
+    }
+
+    public List<String> getAncestors() {
+        return ancestors;
+    }
+
+    /**
+     * Ruta de ancestros que corresponde al supervisor del patch; la escritura se condiciona a que
+     * la ruta del supervisor siga siendo la misma que se leyó
+     * @param ancestors IDs desde la raíz hasta el supervisor directo
+     */
+    public void setAncestors(List<String> ancestors) {
+        this.ancestors = ancestors;
+    }
+
+    public Employee getStored() {
+        return stored;
+    }
+
+    /**
+     * Empleado guardado que ya leyó quien arma el patch: la escritura se condiciona a su versión, su email
+     * y su supervisor en un único intento, sin suponer los valores guardados
+     * @param stored empleado tal como se leyó
+     */
+    public void setStored(Employee stored) {
+        this.stored = stored;
+        this.expectedVersion = stored.getVersion();
+    }
+
+    public boolean isDeferDirectReports() {
+        return deferDirectReports;
+    }
+
+    /**
+     * Deja el ajuste de los contadores de reportes directos a cargo de quien llama, por ejemplo un lote
+     * que los agrupa por supervisor después de escribir todos sus items
+     * @param deferDirectReports si es true la escritura no modifica los contadores
+     */
+    public void setDeferDirectReports(boolean deferDirectReports) {
+        this.deferDirectReports = deferDirectReports;
+    }
+
+    /**
+     * Indica si el patch modifica al menos un campo editable
+     * @return true si hay algo que escribir además de lastUpdated
+     */
+    public boolean hasChanges() {
+        return nombre != null || email != null || supervisorPresent;
+    }
+
+    /**
+     * Escribe los campos aplicados, para la respuesta
+     * @param writer destino, con serializeNulls desactivado
+     * @param version nueva versión del empleado (null si no se conoce)
+     */
+    public void writeTo(JsonWriter writer, Long version) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(this.id);
+        writer.name("nombre").value(this.nombre);
+        writer.name("email").value(this.email);
+        if (this.supervisorPresent) {
+            writer.name("supervisor_id").value(this.supervisor_id);
+        }
+        writer.name("lastUpdated").value(this.lastUpdated);
+        writer.name("version").value(version);
+        writer.endObject();
+    }
+}
@@ -0,0 +1,64 @@
+package com.api.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resultado de recorrer la jerarquía por debajo de un empleado
+public class Subtree {
+    private final Employee root;
+    private final List<Employee> employees = new ArrayList<>();
+    private final Map<String, Integer> depthById = new LinkedHashMap<>();
+    private final Map<String, String> parentById = new HashMap<>();
+    private final List<Integer> levelCounts = new ArrayList<>();
+    private final List<String> cycles = new ArrayList<>();
+    private boolean truncated;
+
+    public Subtree(Employee root) {
+        this.root = root;
+    }
+
+    public Employee getRoot() {
+        return root;
+    }
+
+    // Empleados del subárbol en orden de nivel (vacío si solo se pidieron conteos)
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    // Profundidad de cada descendiente respecto de la raíz (1 = reporte directo)
+    public Map<String, Integer> getDepthById() {
+        return depthById;
+    }
+
+    // Supervisor por el que se alcanzó cada descendiente
+    public Map<String, String> getParentById() {
+        return parentById;
+    }
+
+    // Cantidad de descendientes en cada nivel, empezando por los reportes directos
+    public List<Integer> getLevelCounts() {
+        return levelCounts;
+    }
+
+    // IDs alcanzados por segunda vez: indican un ciclo en los supervisor_id
+    public List<String> getCycles() {
+        return cycles;
+    }
+
+    // Indica si se cortó el recorrido por alcanzar el límite de tamaño
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public int getTotalCount() {
+        return depthById.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.api.models;
+
+import java.util.Map;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+public class Token {
+    private String token;
+    private String username;
+    private String userId;
+    private long expiresAt;
+
+    public Token() {
+    }
+
+    public Token(String token, String username, String userId, long expiresAt) {
+        this.token = token;
+        this.username = username;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Constructor a partir de un Item de DynamoDB
+    public static Token fromDynamoDBItem(Map<String, AttributeValue> item) {
+        if (item == null) {
+            return null;
+        }
+
+        AttributeValue username = item.get("username");
+        AttributeValue userId = item.get("userId");
+        return new Token(
+                item.get("token").s(),
+                username != null ? username.s() : null,
+                userId != null ? userId.s() : null,
+                Long.parseLong(item.get("expiresAt").n()));
+    }
+
+    // Convertir a Item de DynamoDB
+    public Map<String, AttributeValue> toDynamoDBItem() {
+        return Map.of(
+                "token", AttributeValue.fromS(this.token),
+                "username", AttributeValue.fromS(this.username),
+                "userId", AttributeValue.fromS(this.userId),
+                "expiresAt", AttributeValue.fromN(Long.toString(this.expiresAt)));
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.api.models;
+
+import java.util.Map;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+public class User {
+    private String username;
+    private String password;
+    private String id;
+
+    public User() {
+    }
+
+    public User(String username, String password, String id) {
+        this.username = username;
+        this.password = password;
+        this.id = id;
+    }
+
+    // Constructor a partir de un Item de DynamoDB
+    public static User fromDynamoDBItem(Map<String, AttributeValue> item) {
+        if (item == null) {
+            return null;
+        }
+
+        AttributeValue username = item.get("username");
+        AttributeValue password = item.get("password");
+        AttributeValue id = item.get("id");
+        return new User(
+                username != null ? username.s() : null,
+                password != null ? password.s() : null,
+                id != null ? id.s() : null);
+    }
+
+    // Convertir a Item de DynamoDB
+    public Map<String, AttributeValue> toDynamoDBItem() {
+        return Map.of(
+                "username", AttributeValue.fromS(this.username),
+                "password", AttributeValue.fromS(this.password),
+                "id", AttributeValue.fromS(this.id));
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,8 @@
+package com.api.repositories;
+
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException(String email) {
+        super("El email " + email + " ya está registrado por otro empleado");
+    }
+}
@@ -0,0 +1,934 @@
+package com.api.repositories;
+
+import com.api.models.Employee;
+import com.api.models.EmployeeFields;
+import com.api.models.EmployeePatch;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionCheck;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class DynamoDbEmployeeRepository implements EmployeeRepository {
+
+    private static final String TABLE_NAME = "Employees";
+    // Un item por email normalizado con el ID de su dueño: reserva el email y permite buscar por él
+    private static final String EMAIL_TABLE_NAME = "EmployeeEmails";
+    private static final String SUPERVISOR_INDEX = "supervisor_id-index";
+    private static final int BATCH_GET_SIZE = 100;
+    private static final int BATCH_WRITE_SIZE = 25;
+    // Cada empleado ocupa dos escrituras del lote: su item y la reserva de su email
+    private static final int EMPLOYEES_PER_BATCH_WRITE = BATCH_WRITE_SIZE / 2;
+    private static final int MAX_BATCH_ATTEMPTS = 8;
+    private static final long BASE_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+
+    private final DynamoDbAsyncClient client;
+
+    public DynamoDbEmployeeRepository(DynamoDbAsyncClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<Employee> findById(String id, EmployeeFields fields) {
+        GetItemRequest.Builder request = GetItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(Map.of("id", AttributeValue.fromS(id)));
+        // La proyección reduce lo que se transfiere y se convierte, no la capacidad de lectura consumida
+        if (!fields.isAll()) {
+            request.projectionExpression(fields.getProjectionExpression())
+                    .expressionAttributeNames(fields.getExpressionAttributeNames());
+        }
+
+        return client.getItem(request.build())
+                .thenApply(response -> response.hasItem() ? Employee.fromDynamoDBItem(response.item()) : null);
+    }
+
+    @Override
+    public CompletableFuture<Employee> findByEmail(String email, EmployeeFields fields) {
+        String emailKey = Employee.emailKey(email);
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(EMAIL_TABLE_NAME)
+                .key(Map.of("email", AttributeValue.fromS(emailKey)))
+                .consistentRead(true)
+                .build();
+
+        return client.getItem(request).thenCompose(response -> {
+            if (!response.hasItem()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            // Se lee también el email para descartar una reserva que el lote no llegó a liberar
+            return findById(response.item().get("employee_id").s(), fields.with("email")).thenApply(employee ->
+                    employee != null && employee.getEmail() != null && Employee.emailKey(employee.getEmail()).equals(emailKey)
+                            ? employee
+                            : null);
+        });
+    }
+
+    @Override
+    public CompletableFuture<EmployeePage> findPage(int limit, Map<String, String> exclusiveStartKey, EmployeeFields fields) {
+        ScanRequest.Builder request = ScanRequest.builder()
+                .tableName(TABLE_NAME)
+                .limit(limit);
+        if (!fields.isAll()) {
+            request.projectionExpression(fields.getProjectionExpression())
+                    .expressionAttributeNames(fields.getExpressionAttributeNames());
+        }
+        if (exclusiveStartKey != null) {
+            request.exclusiveStartKey(toAttributeValues(exclusiveStartKey));
+        }
+
+        return client.scan(request.build()).thenApply(response -> toPage(response, 0));
+    }
+
+    @Override
+    public CompletableFuture<EmployeePage> findSegmentPage(int segment, int totalSegments, int limit, Map<String, String> exclusiveStartKey) {
+        // Lectura eventualmente consistente: cuesta la mitad y a la exportación no le hace falta más
+        ScanRequest.Builder request = ScanRequest.builder()
+                .tableName(TABLE_NAME)
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .limit(limit)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        if (exclusiveStartKey != null) {
+            request.exclusiveStartKey(toAttributeValues(exclusiveStartKey));
+        }
+
+        return client.scan(request.build()).thenApply(response -> toPage(response,
+                response.consumedCapacity() != null && response.consumedCapacity().capacityUnits() != null
+                        ? response.consumedCapacity().capacityUnits()
+                        : 0));
+    }
+
+    private static EmployeePage toPage(ScanResponse response, double readUnits) {
+        List<Employee> employees = new ArrayList<>(response.count());
+        for (Map<String, AttributeValue> item : response.items()) {
+            employees.add(Employee.fromDynamoDBItem(item));
+        }
+
+        Map<String, String> lastEvaluatedKey = null;
+        if (response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()) {
+            lastEvaluatedKey = new HashMap<>();
+            for (Map.Entry<String, AttributeValue> entry : response.lastEvaluatedKey().entrySet()) {
+                lastEvaluatedKey.put(entry.getKey(), entry.getValue().s());
+            }
+        }
+        return new EmployeePage(employees, lastEvaluatedKey, readUnits);
+    }
+
+    @Override
+    public CompletableFuture<Void> create(Employee employee) {
+        return withDirectReportsCounters(() -> createOnce(employee), 1);
+    }
+
+    private CompletableFuture<Void> createOnce(Employee employee) {
+        String supervisorId = employee.getSupervisor_id();
+        Put put = Put.builder()
+                .tableName(TABLE_NAME)
+                .item(employee.toDynamoDBItem())
+                .conditionExpression("attribute_not_exists(id)")
+                .build();
+
+        // El empleado y la reserva de su email se escriben juntos: el email queda único sin recorrer la tabla
+        List<TransactWriteItem> writes = new ArrayList<>(3);
+        writes.add(TransactWriteItem.builder().put(put).build());
+        writes.add(TransactWriteItem.builder().put(Put.builder()
+                .tableName(EMAIL_TABLE_NAME)
+                .item(emailItem(employee.getEmail(), employee.getId()))
+                .conditionExpression("attribute_not_exists(email)")
+                .build()).build());
+        // El incremento del contador se condiciona a que el supervisor exista y siga en la ruta leída
+        if (supervisorId != null) {
+            writes.add(TransactWriteItem.builder().update(buildDirectReportsUpdate(supervisorId, 1, supervisorPath(employee.getAncestors()))).build());
+        }
+
+        return client.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(writes).build())
+                .handle((response, error) -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof TransactionCanceledException) {
+                        List<CancellationReason> reasons = ((TransactionCanceledException) cause).cancellationReasons();
+                        if (isConditionFailure(reasons, 0)) {
+                            throw new ConcurrentUpdateException("El ID " + employee.getId() + " ya está en uso", cause);
+                        }
+                        if (isConditionFailure(reasons, 1)) {
+                            throw new DuplicateEmailException(employee.getEmail());
+                        }
+                        if (isConditionFailure(reasons, 2)) {
+                            throw supervisorConditionFailure(supervisorId, reasons.get(2).item(), true);
+                        }
+                        throw new ConcurrentUpdateException("Transacción cancelada: " + reasons, cause);
+                    }
+                    rethrow(cause);
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<EmployeeWriteResult> patch(EmployeePatch patch) {
+        Employee read = patch.getStored();
+        if (read != null) {
+            // Quien llama ya leyó el empleado: un solo intento condicionado a la versión leída
+            String previousEmail = patch.getEmail() != null ? read.getEmail() : null;
+            return conditionalUpdate(patch, previousEmail, read.getSupervisor_id(), !patch.isDeferDirectReports())
+                    .exceptionallyCompose(error -> {
+                        Throwable cause = unwrap(error);
+                        if (cause instanceof StoredValuesChangedException) {
+                            return CompletableFuture.failedFuture(new ConcurrentUpdateException(
+                                    "El empleado " + patch.getId() + " cambió después de leerlo", cause));
+                        }
+                        return CompletableFuture.failedFuture(cause);
+                    });
+        }
+
+        // Intento optimista, sin leer antes: se asume que el email y el supervisor guardados son los
+        // del patch, que es el caso habitual en una actualización completa. Si no lo son, el item
+        // devuelto al fallar la condición trae los valores guardados y se reintenta con ellos:
+        // se reserva el nuevo email, se libera el anterior y se mueven los contadores
+        String expectedSupervisorId = patch.isSupervisorPresent() ? patch.getSupervisor_id() : null;
+        return conditionalUpdate(patch, patch.getEmail(), expectedSupervisorId, false)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof StoredValuesChangedException) {
+                        StoredValuesChangedException stored = (StoredValuesChangedException) cause;
+                        String previousEmail = patch.getEmail() != null ? stored.currentEmail : null;
+                        return conditionalUpdate(patch, previousEmail, stored.currentSupervisorId, patch.isSupervisorPresent());
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                })
+                .exceptionallyCompose(error -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof StoredValuesChangedException) {
+                        return CompletableFuture.failedFuture(new ConcurrentUpdateException(
+                                "El empleado " + patch.getId() + " cambió durante la actualización", cause));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAncestors(Map<String, List<String>> ancestorsById) {
+        List<CompletableFuture<Void>> updates = new ArrayList<>(ancestorsById.size());
+        for (Map.Entry<String, List<String>> entry : ancestorsById.entrySet()) {
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of("id", AttributeValue.fromS(entry.getKey())))
+                    // La ruta forma parte de la representación: cambia la versión y con ella el ETag
+                    .updateExpression("SET ancestors = :ancestors ADD version :one")
+                    .conditionExpression("attribute_exists(id)")
+                    .expressionAttributeValues(Map.of(
+                            ":ancestors", Employee.toAttributeValue(entry.getValue()),
+                            ":one", AttributeValue.fromN("1")))
+                    .build();
+
+            updates.add(client.updateItem(request).handle((response, error) -> {
+                Throwable cause = unwrap(error);
+                // Un descendiente eliminado durante la propagación no tiene ruta que actualizar
+                if (cause != null && !(cause instanceof ConditionalCheckFailedException)) {
+                    rethrow(cause);
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(updates.toArray(new CompletableFuture<?>[0]));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> findDirectReportIds(String supervisorId) {
+        return queryDirectReportIds(supervisorId, null, new ArrayList<>());
+    }
+
+    /**
+     * Lee una página del índice de supervisores y continúa con la siguiente hasta agotarlas
+     * @param supervisorId ID del supervisor
+     * @param exclusiveStartKey clave desde la que continuar (null para la primera página)
+     * @param ids IDs acumulados de las páginas anteriores
+     * @return future con todos los IDs
+     */
+    private CompletableFuture<List<String>> queryDirectReportIds(String supervisorId, Map<String, AttributeValue> exclusiveStartKey, List<String> ids) {
+        // El índice es KEYS_ONLY: cada item trae solo id y supervisor_id
+        QueryRequest.Builder request = QueryRequest.builder()
+                .tableName(TABLE_NAME)
+                .indexName(SUPERVISOR_INDEX)
+                .keyConditionExpression("supervisor_id = :supervisorId")
+                .expressionAttributeValues(Map.of(":supervisorId", AttributeValue.fromS(supervisorId)));
+        if (exclusiveStartKey != null) {
+            request.exclusiveStartKey(exclusiveStartKey);
+        }
+
+        return client.query(request.build()).thenCompose(response -> {
+            for (Map<String, AttributeValue> item : response.items()) {
+                ids.add(item.get("id").s());
+            }
+            if (response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()) {
+                return queryDirectReportIds(supervisorId, response.lastEvaluatedKey(), ids);
+            }
+            return CompletableFuture.completedFuture(ids);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> materializeDirectReports(String supervisorId) {
+        return countDirectReports(supervisorId, null, 0).thenCompose(count -> {
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of("id", AttributeValue.fromS(supervisorId)))
+                    .updateExpression("SET directReportsCount = :count")
+                    // Si otra escritura ya lo materializó, se conserva el suyo
+                    .conditionExpression("attribute_exists(id) AND attribute_not_exists(directReportsCount)")
+                    .expressionAttributeValues(Map.of(":count", AttributeValue.fromN(Integer.toString(count))))
+                    .build();
+            return client.updateItem(request).handle((response, error) -> {
+                Throwable cause = unwrap(error);
+                if (cause != null && !(cause instanceof ConditionalCheckFailedException)) {
+                    rethrow(cause);
+                }
+                return count;
+            });
+        });
+    }
+
+    /**
+     * Cuenta los reportes directos con consultas Select.COUNT sobre el índice de supervisores, sin traer sus items
+     * @param supervisorId ID del supervisor
+     * @param exclusiveStartKey clave desde la que continuar (null para la primera página)
+     * @param count cantidad acumulada de las páginas anteriores
+     * @return future con la cantidad total
+     */
+    private CompletableFuture<Integer> countDirectReports(String supervisorId, Map<String, AttributeValue> exclusiveStartKey, int count) {
+        QueryRequest.Builder request = QueryRequest.builder()
+                .tableName(TABLE_NAME)
+                .indexName(SUPERVISOR_INDEX)
+                .keyConditionExpression("supervisor_id = :supervisorId")
+                .expressionAttributeValues(Map.of(":supervisorId", AttributeValue.fromS(supervisorId)))
+                .select(Select.COUNT);
+        if (exclusiveStartKey != null) {
+            request.exclusiveStartKey(exclusiveStartKey);
+        }
+
+        return client.query(request.build()).thenCompose(response -> {
+            int total = count + response.count();
+            if (response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()) {
+                return countDirectReports(supervisorId, response.lastEvaluatedKey(), total);
+            }
+            return CompletableFuture.completedFuture(total);
+        });
+    }
+
+    /**
+     * Aplica una escritura que ajusta contadores de reportes directos. Si falla porque un supervisor no tiene
+     * el contador (se guardó antes de materializarlo), lo cuenta en el índice, lo guarda y repite la escritura
+     * @param write escritura a aplicar, que puede invocarse más de una vez
+     * @param retries cantidad de supervisores que pueden materializarse antes de desistir
+     * @return future con el resultado de la escritura
+     */
+    private <T> CompletableFuture<T> withDirectReportsCounters(Supplier<CompletableFuture<T>> write, int retries) {
+        return write.get().exceptionallyCompose(error -> {
+            Throwable cause = unwrap(error);
+            if (!(cause instanceof MissingDirectReportsCountException)) {
+                return CompletableFuture.failedFuture(cause);
+            }
+            String supervisorId = ((MissingDirectReportsCountException) cause).supervisorId;
+            if (retries == 0) {
+                return CompletableFuture.failedFuture(new ConcurrentUpdateException(
+                        "No se pudo materializar el contador de reportes de " + supervisorId, cause));
+            }
+            return materializeDirectReports(supervisorId).thenCompose(count -> withDirectReportsCounters(write, retries - 1));
+        });
+    }
+
+    private static boolean lacksDirectReportsCount(Map<String, AttributeValue> item) {
+        return item != null && !item.isEmpty() && !item.containsKey("directReportsCount");
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Employee>> findByIds(Collection<String> ids) {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            keys.add(Map.of("id", AttributeValue.fromS(id)));
+        }
+
+        // BatchGetItem admite hasta 100 claves por llamada; los bloques se leen en paralelo
+        List<CompletableFuture<List<Map<String, AttributeValue>>>> chunks = new ArrayList<>();
+        for (int start = 0; start < keys.size(); start += BATCH_GET_SIZE) {
+            chunks.add(batchGet(TABLE_NAME, keys.subList(start, Math.min(start + BATCH_GET_SIZE, keys.size())), 0));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, Employee> employees = new HashMap<>();
+            for (CompletableFuture<List<Map<String, AttributeValue>>> chunk : chunks) {
+                for (Map<String, AttributeValue> item : chunk.join()) {
+                    Employee employee = Employee.fromDynamoDBItem(item);
+                    employees.put(employee.getId(), employee);
+                }
+            }
+            return employees;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> findEmailOwners(Collection<String> emailKeys) {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>(emailKeys.size());
+        for (String emailKey : emailKeys) {
+            keys.add(Map.of("email", AttributeValue.fromS(emailKey)));
+        }
+
+        List<CompletableFuture<List<Map<String, AttributeValue>>>> chunks = new ArrayList<>();
+        for (int start = 0; start < keys.size(); start += BATCH_GET_SIZE) {
+            chunks.add(batchGet(EMAIL_TABLE_NAME, keys.subList(start, Math.min(start + BATCH_GET_SIZE, keys.size())), 0));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, String> owners = new HashMap<>();
+            for (CompletableFuture<List<Map<String, AttributeValue>>> chunk : chunks) {
+                for (Map<String, AttributeValue> item : chunk.join()) {
+                    owners.put(item.get("email").s(), item.get("employee_id").s());
+                }
+            }
+            return owners;
+        });
+    }
+
+    @Override
+    public CompletableFuture<EmployeeBatchWriteResult> saveAll(List<Employee> employees) {
+        // BatchWriteItem admite hasta 25 escrituras por llamada; los bloques se escriben en paralelo
+        List<CompletableFuture<Map<String, List<WriteRequest>>>> chunks = new ArrayList<>();
+        for (int start = 0; start < employees.size(); start += EMPLOYEES_PER_BATCH_WRITE) {
+            List<WriteRequest> employeeWrites = new ArrayList<>(EMPLOYEES_PER_BATCH_WRITE);
+            List<WriteRequest> emailWrites = new ArrayList<>(EMPLOYEES_PER_BATCH_WRITE);
+            for (Employee employee : employees.subList(start, Math.min(start + EMPLOYEES_PER_BATCH_WRITE, employees.size()))) {
+                employeeWrites.add(WriteRequest.builder()
+                        .putRequest(PutRequest.builder().item(employee.toDynamoDBItem()).build())
+                        .build());
+                emailWrites.add(WriteRequest.builder()
+                        .putRequest(PutRequest.builder().item(emailItem(employee.getEmail(), employee.getId())).build())
+                        .build());
+            }
+            chunks.add(batchWrite(Map.of(TABLE_NAME, employeeWrites, EMAIL_TABLE_NAME, emailWrites), 0));
+        }
+
+        // Cada tabla se informa por separado: el item y la reserva de un mismo empleado pueden quedar uno sin el otro
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Set<String> unsavedEmployeeIds = new HashSet<>();
+            Set<String> unsavedEmailOwnerIds = new HashSet<>();
+            for (CompletableFuture<Map<String, List<WriteRequest>>> chunk : chunks) {
+                for (WriteRequest write : chunk.join().getOrDefault(TABLE_NAME, List.of())) {
+                    unsavedEmployeeIds.add(write.putRequest().item().get("id").s());
+                }
+                for (WriteRequest write : chunk.join().getOrDefault(EMAIL_TABLE_NAME, List.of())) {
+                    unsavedEmailOwnerIds.add(write.putRequest().item().get("employee_id").s());
+                }
+            }
+            return new EmployeeBatchWriteResult(unsavedEmployeeIds, unsavedEmailOwnerIds);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> releaseEmails(Map<String, String> ownerByEmail) {
+        List<CompletableFuture<Void>> deletes = new ArrayList<>(ownerByEmail.size());
+        for (Map.Entry<String, String> entry : ownerByEmail.entrySet()) {
+            DeleteItemRequest request = DeleteItemRequest.builder()
+                    .tableName(EMAIL_TABLE_NAME)
+                    .key(Map.of("email", AttributeValue.fromS(entry.getKey())))
+                    .conditionExpression("employee_id = :employeeId")
+                    .expressionAttributeValues(Map.of(":employeeId", AttributeValue.fromS(entry.getValue())))
+                    .build();
+
+            deletes.add(client.deleteItem(request).handle((response, error) -> {
+                Throwable cause = unwrap(error);
+                // Un email que ya no existe o que otro empleado reservó no se libera
+                if (cause != null && !(cause instanceof ConditionalCheckFailedException)) {
+                    rethrow(cause);
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(deletes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    @Override
+    public CompletableFuture<Void> adjustDirectReports(Map<String, Integer> deltas) {
+        List<CompletableFuture<Void>> updates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+            Update update = buildDirectReportsUpdate(entry.getKey(), entry.getValue(), null);
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(update.tableName())
+                    .key(update.key())
+                    .updateExpression(update.updateExpression())
+                    .conditionExpression(update.conditionExpression())
+                    .expressionAttributeValues(update.expressionAttributeValues())
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                    .build();
+
+            String supervisorId = entry.getKey();
+            updates.add(client.updateItem(request).handle((response, error) -> {
+                Throwable cause = unwrap(error);
+                // Un supervisor que ya no existe no tiene contador que ajustar
+                if (cause != null && !(cause instanceof ConditionalCheckFailedException)) {
+                    rethrow(cause);
+                }
+                return cause != null && lacksDirectReportsCount(((ConditionalCheckFailedException) cause).item());
+            }).thenCompose(missing -> {
+                // Los items del lote ya están escritos: el conteo los incluye y el delta no se suma
+                return missing
+                        ? materializeDirectReports(supervisorId).thenApply(count -> (Void) null)
+                        : CompletableFuture.<Void>completedFuture(null);
+            }));
+        }
+        return CompletableFuture.allOf(updates.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Lee un bloque de claves, reintentando con espera exponencial las que DynamoDB devuelva sin procesar
+     * @param tableName tabla a leer
+     * @param keys claves a leer (100 como máximo)
+     * @param attempt número de intento actual
+     * @return future con los items leídos
+     */
+    private CompletableFuture<List<Map<String, AttributeValue>>> batchGet(String tableName, List<Map<String, AttributeValue>> keys, int attempt) {
+        BatchGetItemRequest request = BatchGetItemRequest.builder()
+                .requestItems(Map.of(tableName, KeysAndAttributes.builder().keys(keys).build()))
+                .build();
+
+        return client.batchGetItem(request).thenCompose(response -> {
+            List<Map<String, AttributeValue>> items = new ArrayList<>(response.responses().getOrDefault(tableName, List.of()));
+            KeysAndAttributes unprocessed = response.unprocessedKeys().get(tableName);
+            if (unprocessed == null || unprocessed.keys().isEmpty()) {
+                return CompletableFuture.completedFuture(items);
+            }
+            if (attempt + 1 >= MAX_BATCH_ATTEMPTS) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "No se pudieron leer " + unprocessed.keys().size() + " items de " + tableName + " tras " + MAX_BATCH_ATTEMPTS + " intentos"));
+            }
+
+            return backoff(attempt)
+                    .thenCompose(ignored -> batchGet(tableName, unprocessed.keys(), attempt + 1))
+                    .thenApply(retried -> {
+                        items.addAll(retried);
+                        return items;
+                    });
+        });
+    }
+
+    /**
+     * Escribe un bloque de items, reintentando con espera exponencial los que DynamoDB devuelva sin procesar
+     * @param writes escrituras a enviar por tabla (25 como máximo en total)
+     * @param attempt número de intento actual
+     * @return future con las escrituras de cada tabla que siguen sin procesar al agotar los reintentos
+     */
+    private CompletableFuture<Map<String, List<WriteRequest>>> batchWrite(Map<String, List<WriteRequest>> writes, int attempt) {
+        BatchWriteItemRequest request = BatchWriteItemRequest.builder()
+                .requestItems(writes)
+                .build();
+
+        return client.batchWriteItem(request).thenCompose(response -> {
+            Map<String, List<WriteRequest>> unprocessed = response.unprocessedItems();
+            if (unprocessed.isEmpty() || attempt + 1 >= MAX_BATCH_ATTEMPTS) {
+                return CompletableFuture.completedFuture(unprocessed);
+            }
+
+            return backoff(attempt).thenCompose(ignored -> batchWrite(unprocessed, attempt + 1));
+        });
+    }
+
+    /**
+     * Espera exponencial con jitter completo antes de reintentar los items no procesados
+     * @param attempt número de intento que acaba de terminar
+     * @return future que completa al cumplirse la espera
+     */
+    private static CompletableFuture<Void> backoff(int attempt) {
+        long cap = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << attempt);
+        long delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        // El reintento solo envía la siguiente llamada asíncrona: se ejecuta en el hilo del temporizador,
+        // sin pasar por el ForkJoinPool común
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, Runnable::run));
+    }
+
+    /**
+     * Actualiza el empleado condicionado a que exista y, si el patch incluye supervisor o email, a que los guardados
+     * sean los esperados
+     * @param patch campos a escribir
+     * @param previousEmail email que se espera encontrar guardado (null si el patch no incluye email
+     *                      o si el item no tiene)
+     * @param expectedSupervisorId supervisor que se espera encontrar guardado
+     * @param moveCounters si se deben mover los contadores del supervisor esperado al nuevo cuando son distintos
+     * @return future con el resultado de la escritura, o que completa con StoredValuesChangedException
+     *         si el email o el supervisor guardados no son los esperados
+     */
+    private CompletableFuture<EmployeeWriteResult> conditionalUpdate(EmployeePatch patch, String previousEmail,
+                                                                    String expectedSupervisorId, boolean moveCounters) {
+        // Con dos supervisores sin contador puede hacer falta materializar ambos
+        return withDirectReportsCounters(() -> conditionalUpdateOnce(patch, previousEmail, expectedSupervisorId, moveCounters), 2);
+    }
+
+    private CompletableFuture<EmployeeWriteResult> conditionalUpdateOnce(EmployeePatch patch, String previousEmail,
+                                                                        String expectedSupervisorId, boolean moveCounters) {
+        String supervisorId = patch.getSupervisor_id();
+        Update employeeUpdate = buildEmployeeUpdate(patch, previousEmail, expectedSupervisorId);
+        boolean supervisorChanged = patch.isSupervisorPresent() && !Objects.equals(expectedSupervisorId, supervisorId);
+        List<String> supervisorPath = supervisorPath(patch.getAncestors());
+
+        List<TransactWriteItem> writes = new ArrayList<>();
+        writes.add(TransactWriteItem.builder().update(employeeUpdate).build());
+        int supervisorIndex = -1;
+        int previousSupervisorIndex = -1;
+        boolean countersMoved = moveCounters && supervisorChanged;
+        if (countersMoved) {
+            if (expectedSupervisorId != null) {
+                previousSupervisorIndex = writes.size();
+                writes.add(TransactWriteItem.builder().update(buildDirectReportsUpdate(expectedSupervisorId, -1, null)).build());
+            }
+            if (supervisorId != null) {
+                supervisorIndex = writes.size();
+                writes.add(TransactWriteItem.builder().update(buildDirectReportsUpdate(supervisorId, 1, supervisorPath)).build());
+            }
+        } else if (patch.isSupervisorPresent() && supervisorId != null) {
+            Map<String, AttributeValue> values = new HashMap<>();
+            ConditionCheck.Builder check = ConditionCheck.builder()
+                    .tableName(TABLE_NAME)
+                    .key(Map.of("id", AttributeValue.fromS(supervisorId)))
+                    .conditionExpression(supervisorCondition(supervisorPath, values))
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD);
+            if (!values.isEmpty()) {
+                check.expressionAttributeValues(values);
+            }
+            supervisorIndex = writes.size();
+            writes.add(TransactWriteItem.builder().conditionCheck(check.build()).build());
+        }
+        int emailIndex = -1;
+        if (patch.getEmail() != null) {
+            // Reserva el email (o confirma que ya es suyo) aunque no cambie: los empleados guardados antes de
+            // la tabla de emails no tienen reserva y la obtienen en su siguiente escritura con email.
+            // Si cambió, libera el anterior si le pertenece
+            Map<String, AttributeValue> owner = Map.of(":employeeId", AttributeValue.fromS(patch.getId()));
+            emailIndex = writes.size();
+            writes.add(TransactWriteItem.builder().put(Put.builder()
+                    .tableName(EMAIL_TABLE_NAME)
+                    .item(emailItem(patch.getEmail(), patch.getId()))
+                    .conditionExpression("attribute_not_exists(email) OR employee_id = :employeeId")
+                    .expressionAttributeValues(owner)
+                    .build()).build());
+            if (previousEmail != null && !Employee.emailKey(previousEmail).equals(Employee.emailKey(patch.getEmail()))) {
+                writes.add(TransactWriteItem.builder().delete(Delete.builder()
+                        .tableName(EMAIL_TABLE_NAME)
+                        .key(Map.of("email", AttributeValue.fromS(Employee.emailKey(previousEmail))))
+                        .conditionExpression("attribute_not_exists(email) OR employee_id = :employeeId")
+                        .expressionAttributeValues(owner)
+                        .build()).build());
+            }
+        }
+
+        // Sin supervisor ni cambio de email alcanza con un UpdateItem condicionado
+        if (writes.size() == 1) {
+            UpdateItemRequest request = UpdateItemRequest.builder()
+                    .tableName(employeeUpdate.tableName())
+                    .key(employeeUpdate.key())
+                    .updateExpression(employeeUpdate.updateExpression())
+                    .conditionExpression(employeeUpdate.conditionExpression())
+                    .expressionAttributeValues(employeeUpdate.expressionAttributeValues())
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                    // Solo vuelven los atributos modificados, entre ellos la nueva versión
+                    .returnValues(ReturnValue.UPDATED_NEW)
+                    .build();
+
+            return client.updateItem(request).handle((response, error) -> {
+                Throwable cause = unwrap(error);
+                if (cause instanceof ConditionalCheckFailedException) {
+                    throw employeeConditionFailure(patch, ((ConditionalCheckFailedException) cause).item());
+                }
+                rethrow(cause);
+                AttributeValue version = response.attributes().get("version");
+                return new EmployeeWriteResult(version != null ? Long.valueOf(version.n()) : null, supervisorChanged);
+            });
+        }
+
+        int checkedSupervisorIndex = supervisorIndex;
+        int checkedPreviousSupervisorIndex = previousSupervisorIndex;
+        int checkedEmailIndex = emailIndex;
+        return client.transactWriteItems(TransactWriteItemsRequest.builder().transactItems(writes).build())
+                .handle((response, error) -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof TransactionCanceledException) {
+                        List<CancellationReason> reasons = ((TransactionCanceledException) cause).cancellationReasons();
+                        if (isConditionFailure(reasons, 0)) {
+                            throw employeeConditionFailure(patch, reasons.get(0).item());
+                        }
+                        if (isConditionFailure(reasons, checkedSupervisorIndex)) {
+                            throw supervisorConditionFailure(supervisorId, reasons.get(checkedSupervisorIndex).item(), countersMoved);
+                        }
+                        if (isConditionFailure(reasons, checkedPreviousSupervisorIndex)
+                                && lacksDirectReportsCount(reasons.get(checkedPreviousSupervisorIndex).item())) {
+                            throw new MissingDirectReportsCountException(expectedSupervisorId);
+                        }
+                        if (isConditionFailure(reasons, checkedEmailIndex)) {
+                            throw new DuplicateEmailException(patch.getEmail());
+                        }
+                        throw new ConcurrentUpdateException("Transacción cancelada: " + reasons, cause);
+                    }
+                    rethrow(cause);
+                    // Las transacciones no devuelven valores: la versión solo se conoce si se verificó If-Match
+                    Long expectedVersion = patch.getExpectedVersion();
+                    Long version = expectedVersion != null && expectedVersion != EmployeePatch.ANY_VERSION ? expectedVersion + 1 : null;
+                    return new EmployeeWriteResult(version, supervisorChanged);
+                });
+    }
+
+    /**
+     * Interpreta el item devuelto al fallar la condición sobre el empleado
+     * @param patch patch que se intentó aplicar
+     * @param oldItem item guardado (vacío si no existe)
+     * @return la excepción que corresponde lanzar
+     */
+    private static RuntimeException employeeConditionFailure(EmployeePatch patch, Map<String, AttributeValue> oldItem) {
+        if (oldItem == null || oldItem.isEmpty()) {
+            return new EmployeeNotFoundException(patch.getId());
+        }
+        Long expectedVersion = patch.getExpectedVersion();
+        if (expectedVersion != null && expectedVersion != EmployeePatch.ANY_VERSION
+                && expectedVersion != Employee.fromDynamoDBItem(oldItem).getVersion()) {
+            return new VersionMismatchException(patch.getId(), expectedVersion);
+        }
+        // Falló el email o el supervisor esperados: el item guardado dice cuáles son
+        AttributeValue currentEmail = oldItem.get("email");
+        AttributeValue currentSupervisor = oldItem.get("supervisor_id");
+        return new StoredValuesChangedException(
+                currentEmail != null ? currentEmail.s() : null,
+                currentSupervisor != null ? currentSupervisor.s() : null);
+    }
+
+    /**
+     * Interpreta el item devuelto al fallar la condición sobre el supervisor
+     * @param supervisorId ID del supervisor
+     * @param oldItem item guardado (vacío si no existe)
+     * @param counterRequired si la escritura ajustaba su contador, que debe existir
+     * @return SupervisorNotFoundException si no existe, MissingDirectReportsCountException si le falta el contador,
+     *         o ConcurrentUpdateException si cambió de posición
+     */
+    private static RuntimeException supervisorConditionFailure(String supervisorId, Map<String, AttributeValue> oldItem,
+                                                               boolean counterRequired) {
+        if (oldItem == null || oldItem.isEmpty()) {
+            return new SupervisorNotFoundException(supervisorId);
+        }
+        if (counterRequired && lacksDirectReportsCount(oldItem)) {
+            return new MissingDirectReportsCountException(supervisorId);
+        }
+        return new ConcurrentUpdateException("El supervisor " + supervisorId + " cambió de posición en la jerarquía", null);
+    }
+
+    /**
+     * Ruta que debe tener guardada el supervisor: la del empleado sin su último elemento
+     * @param ancestors ruta del empleado (puede ser null si no se resolvió)
+     * @return ruta esperada del supervisor, o null si no se verifica
+     */
+    private static List<String> supervisorPath(List<String> ancestors) {
+        return ancestors == null || ancestors.isEmpty() ? null : ancestors.subList(0, ancestors.size() - 1);
+    }
+
+    /**
+     * Condición sobre el supervisor: que exista y, si se indica, que su ruta siga siendo la leída
+     * @param supervisorPath ruta esperada del supervisor (null para no verificarla)
+     * @param values valores de la expresión, donde se agrega el de la ruta
+     * @return expresión de condición
+     */
+    private static String supervisorCondition(List<String> supervisorPath, Map<String, AttributeValue> values) {
+        if (supervisorPath == null) {
+            return "attribute_exists(id)";
+        }
+        values.put(":supervisorPath", Employee.toAttributeValue(supervisorPath));
+        // Un supervisor raíz puede no tener el atributo si se guardó antes de que existiera la ruta
+        return supervisorPath.isEmpty()
+                ? "attribute_exists(id) AND (attribute_not_exists(ancestors) OR ancestors = :supervisorPath)"
+                : "attribute_exists(id) AND ancestors = :supervisorPath";
+    }
+
+    private static boolean isConditionFailure(List<CancellationReason> reasons, int index) {
+        return index >= 0 && index < reasons.size() && "ConditionalCheckFailed".equals(reasons.get(index).code());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static void rethrow(Throwable cause) {
+        if (cause != null) {
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Construye la actualización de los campos presentes en el patch, sin tocar el resto del item
+     * ni el contador de reportes
+     * @param patch campos a escribir
+     * @param previousEmail email que debe estar guardado para aplicar la actualización (null para no verificarlo)
+     * @param expectedSupervisorId supervisor que debe estar guardado para aplicar la actualización
+     *                             (solo se verifica si el patch incluye supervisor)
+     * @return operación Update para la transacción
+     */
+    private Update buildEmployeeUpdate(EmployeePatch patch, String previousEmail, String expectedSupervisorId) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":lastUpdated", AttributeValue.fromS(patch.getLastUpdated()));
+
+        StringBuilder updateExpression = new StringBuilder("SET lastUpdated = :lastUpdated");
+        if (patch.getNombre() != null) {
+            values.put(":nombre", AttributeValue.fromS(patch.getNombre()));
+            updateExpression.append(", nombre = :nombre");
+        }
+        if (patch.getEmail() != null) {
+            values.put(":email", AttributeValue.fromS(patch.getEmail()));
+            updateExpression.append(", email = :email");
+        }
+
+        String conditionExpression = "attribute_exists(id)";
+        Long expectedVersion = patch.getExpectedVersion();
+        if (expectedVersion != null && expectedVersion != EmployeePatch.ANY_VERSION) {
+            // La versión 0 corresponde a items guardados antes de que existiera el atributo
+            if (expectedVersion == 0) {
+                conditionExpression += " AND attribute_not_exists(version)";
+            } else {
+                values.put(":expectedVersion", AttributeValue.fromN(Long.toString(expectedVersion)));
+                conditionExpression += " AND version = :expectedVersion";
+            }
+        }
+        if (previousEmail != null) {
+            values.put(":previousEmail", AttributeValue.fromS(previousEmail));
+            conditionExpression += " AND email = :previousEmail";
+        }
+        if (patch.isSupervisorPresent()) {
+            if (patch.getAncestors() != null) {
+                values.put(":ancestors", Employee.toAttributeValue(patch.getAncestors()));
+                updateExpression.append(", ancestors = :ancestors");
+            }
+            if (patch.getSupervisor_id() != null) {
+                values.put(":supervisorId", AttributeValue.fromS(patch.getSupervisor_id()));
+                updateExpression.append(", supervisor_id = :supervisorId");
+            } else {
+                updateExpression.append(" REMOVE supervisor_id");
+            }
+
+            if (expectedSupervisorId != null) {
+                values.put(":expectedSupervisorId", AttributeValue.fromS(expectedSupervisorId));
+                conditionExpression += " AND supervisor_id = :expectedSupervisorId";
+            } else {
+                conditionExpression += " AND attribute_not_exists(supervisor_id)";
+            }
+        }
+
+        // Cada escritura incrementa la versión; ADD la crea en 1 si el item no la tenía
+        values.put(":one", AttributeValue.fromN("1"));
+        updateExpression.append(" ADD version :one");
+
+        return Update.builder()
+                .tableName(TABLE_NAME)
+                .key(Map.of("id", AttributeValue.fromS(patch.getId())))
+                .updateExpression(updateExpression.toString())
+                .conditionExpression(conditionExpression)
+                .expressionAttributeValues(values)
+                // Devuelve el item guardado si falla la condición, para saber el supervisor actual sin otra lectura
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                .build();
+    }
+
+    /**
+     * Construye el incremento (o decremento) atómico del contador de reportes directos de un supervisor,
+     * junto con el de su versión
+     * @param supervisorId ID del supervisor
+     * @param delta variación del contador
+     * @param supervisorPath ruta que debe tener guardada el supervisor (null para no verificarla)
+     * @return operación Update para la transacción
+     */
+    private Update buildDirectReportsUpdate(String supervisorId, int delta, List<String> supervisorPath) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":delta", AttributeValue.fromN(Integer.toString(delta)));
+        values.put(":one", AttributeValue.fromN("1"));
+        // El contador se devuelve en el GET: también incrementa la versión, para que el ETag anterior deje de coincidir.
+        // ADD crearía el contador en 0 en los supervisores guardados antes de materializarlo: se exige que exista
+        return Update.builder()
+                .tableName(TABLE_NAME)
+                .key(Map.of("id", AttributeValue.fromS(supervisorId)))
+                .updateExpression("ADD directReportsCount :delta, version :one")
+                .conditionExpression(supervisorCondition(supervisorPath, values) + " AND attribute_exists(directReportsCount)")
+                .expressionAttributeValues(values)
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                .build();
+    }
+
+    /**
+     * Item que reserva un email para un empleado
+     * @param email email tal como se guarda en el empleado
+     * @param employeeId ID del dueño
+     * @return item de la tabla de emails
+     */
+    private static Map<String, AttributeValue> emailItem(String email, String employeeId) {
+        return Map.of(
+                "email", AttributeValue.fromS(Employee.emailKey(email)),
+                "employee_id", AttributeValue.fromS(employeeId));
+    }
+
+    private static Map<String, AttributeValue> toAttributeValues(Map<String, String> key) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        for (Map.Entry<String, String> entry : key.entrySet()) {
+            values.put(entry.getKey(), AttributeValue.fromS(entry.getValue()));
+        }
+        return values;
+    }
+
+    // El supervisor no tiene contador de reportes; solo se usa para materializarlo y reintentar
+    private static final class MissingDirectReportsCountException extends RuntimeException {
+        private final String supervisorId;
+
+        private MissingDirectReportsCountException(String supervisorId) {
+            super(null, null, false, false);
+            this.supervisorId = supervisorId;
+        }
+    }
+
+    // El email o el supervisor guardados no son los esperados; solo se usa para decidir el reintento
+    private static final class StoredValuesChangedException extends RuntimeException {
+        private final String currentEmail;
+        private final String currentSupervisorId;
+
+        private StoredValuesChangedException(String currentEmail, String currentSupervisorId) {
+            super(null, null, false, false);
+            this.currentEmail = currentEmail;
+            this.currentSupervisorId = currentSupervisorId;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.api.repositories;
+
+import com.api.models.Token;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class DynamoDbTokenRepository implements TokenRepository {
+
+    private static final String TABLE_NAME = "Tokens";
+
+    private final DynamoDbAsyncClient client;
+
+    public DynamoDbTokenRepository(DynamoDbAsyncClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<Token> findByToken(String token) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(Map.of("token", AttributeValue.fromS(token)))
+                .build();
+
+        return client.getItem(request)
+                .thenApply(response -> response.hasItem() ? Token.fromDynamoDBItem(response.item()) : null);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(Token token) {
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .item(token.toDynamoDBItem())
+                .build();
+
+        return client.putItem(request).thenApply(response -> null);
+    }
+}
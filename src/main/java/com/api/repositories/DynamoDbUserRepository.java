@@ -0,0 +1,31 @@
+package com.api.repositories;
+
+import com.api.models.User;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class DynamoDbUserRepository implements UserRepository {
+
+    private static final String TABLE_NAME = "Users";
+
+    private final DynamoDbAsyncClient client;
+
+    public DynamoDbUserRepository(DynamoDbAsyncClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<User> findByUsername(String username) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(Map.of("username", AttributeValue.fromS(username)))
+                .build();
+
+        return client.getItem(request)
+                .thenApply(response -> response.hasItem() ? User.fromDynamoDBItem(response.item()) : null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.api.repositories;
+
+import java.util.Set;
+
+// Resultado de una escritura agrupada: lo que quedó sin escribir en cada tabla al agotar los reintentos
+public class EmployeeBatchWriteResult {
+    private final Set<String> unsavedEmployeeIds;
+    private final Set<String> unsavedEmailOwnerIds;
+
+    public EmployeeBatchWriteResult(Set<String> unsavedEmployeeIds, Set<String> unsavedEmailOwnerIds) {
+        this.unsavedEmployeeIds = unsavedEmployeeIds;
+        this.unsavedEmailOwnerIds = unsavedEmailOwnerIds;
+    }
+
+    // IDs de los empleados cuyo item no se escribió
+    public Set<String> getUnsavedEmployeeIds() {
+        return unsavedEmployeeIds;
+    }
+
+    // IDs de los empleados cuya reserva de email no se escribió (su item puede haberse escrito igual)
+    public Set<String> getUnsavedEmailOwnerIds() {
+        return unsavedEmailOwnerIds;
+    }
+
+    // Indica si se escribieron todos los items de ambas tablas
+    public boolean isComplete() {
+        return unsavedEmployeeIds.isEmpty() && unsavedEmailOwnerIds.isEmpty();
+    }
+}
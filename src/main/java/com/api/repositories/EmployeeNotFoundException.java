@@ -0,0 +1,8 @@
+package com.api.repositories;
+
+public class EmployeeNotFoundException extends RuntimeException {
+
+    public EmployeeNotFoundException(String employeeId) {
+        super("El empleado " + employeeId + " no existe");
+    }
+}
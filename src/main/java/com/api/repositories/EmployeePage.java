@@ -0,0 +1,36 @@
+package com.api.repositories;
+
+import com.api.models.Employee;
+
+import java.util.List;
+import java.util.Map;
+
+public class EmployeePage {
+    private final List<Employee> employees;
+    private final Map<String, String> lastEvaluatedKey;
+    private final double readUnits;
+
+    public EmployeePage(List<Employee> employees, Map<String, String> lastEvaluatedKey) {
+        this(employees, lastEvaluatedKey, 0);
+    }
+
+    public EmployeePage(List<Employee> employees, Map<String, String> lastEvaluatedKey, double readUnits) {
+        this.employees = employees;
+        this.lastEvaluatedKey = lastEvaluatedKey;
+        this.readUnits = readUnits;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    // Clave desde la que continuar, o null si no hay más páginas
+    public Map<String, String> getLastEvaluatedKey() {
+        return lastEvaluatedKey;
+    }
+
+    // Capacidad de lectura consumida por la página (solo se informa en los recorridos por segmento)
+    public double getReadUnits() {
+        return readUnits;
+    }
+}
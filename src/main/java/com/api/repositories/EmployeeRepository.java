@@ -0,0 +1,149 @@
+package com.api.repositories;
+
+import com.api.models.Employee;
+import com.api.models.EmployeeFields;
+import com.api.models.EmployeePatch;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public interface EmployeeRepository {
+
+    /**
+     * Busca un empleado por su ID
+     * @param id ID del empleado
+     * @return future con el empleado, o null si no existe
+     */
+    default CompletableFuture<Employee> findById(String id) {
+        return findById(id, EmployeeFields.ALL);
+    }
+
+    /**
+     * Busca un empleado por su ID leyendo solo los atributos pedidos
+     * @param id ID del empleado
+     * @param fields atributos a leer
+     * @return future con el empleado (los atributos no leídos quedan en null), o null si no existe
+     */
+    CompletableFuture<Employee> findById(String id, EmployeeFields fields);
+
+    /**
+     * Busca un empleado por su email mediante el item que lo reserva, sin recorrer la tabla
+     * @param email email a buscar (se compara en su forma normalizada)
+     * @param fields atributos a leer
+     * @return future con el empleado, o null si ninguno tiene ese email
+     */
+    CompletableFuture<Employee> findByEmail(String email, EmployeeFields fields);
+
+    /**
+     * Obtiene una página de empleados en el orden de la tabla
+     * @param limit cantidad máxima de empleados a leer
+     * @param exclusiveStartKey clave desde la que continuar (null para la primera página)
+     * @param fields atributos a leer de cada empleado
+     * @return future con la página leída
+     */
+    CompletableFuture<EmployeePage> findPage(int limit, Map<String, String> exclusiveStartKey, EmployeeFields fields);
+
+    /**
+     * Obtiene una página de uno de los segmentos en que se divide la tabla, para recorrerla completa
+     * con varios lectores en paralelo
+     * @param segment segmento a leer, entre 0 y totalSegments - 1
+     * @param totalSegments cantidad de segmentos
+     * @param limit cantidad máxima de empleados a leer
+     * @param exclusiveStartKey clave desde la que continuar dentro del segmento (null para la primera página)
+     * @return future con la página leída y la capacidad de lectura que consumió
+     */
+    CompletableFuture<EmployeePage> findSegmentPage(int segment, int totalSegments, int limit, Map<String, String> exclusiveStartKey);
+
+    /**
+     * Crea un empleado, reserva su email e incrementa el contador de reportes directos de su supervisor,
+     * en una única escritura condicionada a que el ID y el email estén libres y a que el supervisor exista
+     * con la ruta de ancestros leída. Si el supervisor aún no tiene contador, lo materializa y repite la escritura
+     * @param employee empleado a crear, con su ruta de ancestros
+     * @return future que completa con SupervisorNotFoundException si el supervisor no existe,
+     *         DuplicateEmailException si el email ya está registrado,
+     *         o ConcurrentUpdateException si el ID ya estaba en uso o el supervisor cambió de posición
+     */
+    CompletableFuture<Void> create(Employee employee);
+
+    /**
+     * Escribe solo los campos presentes en el patch e incrementa la versión del empleado: la existencia del empleado,
+     * la versión esperada y el supervisor se verifican en la propia escritura.
+     * Si el patch incluye supervisor, guarda la ruta de ancestros, verifica que la del supervisor no haya cambiado
+     * y ajusta los contadores de reportes directos del anterior y del nuevo.
+     * Si incluye email lo reserva en la misma escritura aunque no cambie, de modo que los empleados sin reserva la obtienen;
+     * si cambia, libera el anterior, sin leer antes el guardado.
+     * Si el patch trae el empleado ya leído, la escritura se condiciona a su versión en un único intento.
+     * Si el patch tiene deferDirectReports, esta escritura no ajusta los contadores de reportes directos
+     * de los supervisores y quien llama debe aplicarlos
+     * @param patch campos a escribir, con lastUpdated
+     * @return future con el resultado de la escritura; completa con EmployeeNotFoundException,
+     *         SupervisorNotFoundException, VersionMismatchException, DuplicateEmailException
+     *         o ConcurrentUpdateException si la escritura no pudo aplicarse
+     */
+    CompletableFuture<EmployeeWriteResult> patch(EmployeePatch patch);
+
+    /**
+     * Reemplaza la ruta de ancestros de varios empleados existentes e incrementa su versión; los que ya no existen se ignoran
+     * @param ancestorsById ruta de ancestros por ID de empleado
+     * @return future que completa cuando se aplicaron todas las escrituras
+     */
+    CompletableFuture<Void> updateAncestors(Map<String, List<String>> ancestorsById);
+
+    /**
+     * Obtiene los IDs de los reportes directos de un supervisor mediante el índice supervisor_id-index,
+     * leyendo todas sus páginas
+     * @param supervisorId ID del supervisor
+     * @return future con los IDs de sus reportes directos
+     */
+    CompletableFuture<List<String>> findDirectReportIds(String supervisorId);
+
+    /**
+     * Cuenta los reportes directos de un supervisor en el índice supervisor_id-index y guarda el contador si el item
+     * aún no lo tiene (empleados guardados antes de materializarlo); no cambia la versión, ya que el valor expuesto
+     * no cambia. El índice es de lectura eventualmente consistente, por lo que un reporte recién escrito puede no contarse
+     * @param supervisorId ID del supervisor
+     * @return future con la cantidad contada
+     */
+    CompletableFuture<Integer> materializeDirectReports(String supervisorId);
+
+    /**
+     * Busca varios empleados por ID en lecturas agrupadas
+     * @param ids IDs a buscar (sin repetidos)
+     * @return future con los empleados encontrados, indexados por ID; los que no existen no aparecen
+     */
+    CompletableFuture<Map<String, Employee>> findByIds(Collection<String> ids);
+
+    /**
+     * Obtiene el dueño de cada email reservado, en lecturas agrupadas
+     * @param emailKeys emails normalizados (sin repetidos)
+     * @return future con el ID del empleado por email; los emails libres no aparecen
+     */
+    CompletableFuture<Map<String, String>> findEmailOwners(Collection<String> emailKeys);
+
+    /**
+     * Guarda varios empleados nuevos y la reserva de sus emails en escrituras agrupadas, sin condiciones
+     * ni transacción, reintentando los items no procesados. Quien llama debe verificar antes con findEmailOwners
+     * que los emails estén libres; los empleados existentes se actualizan con patch
+     * @param employees empleados a guardar, con sus contadores ya calculados
+     * @return future con lo que quedó sin escribir en cada tabla tras agotar los reintentos
+     */
+    CompletableFuture<EmployeeBatchWriteResult> saveAll(List<Employee> employees);
+
+    /**
+     * Libera emails que sus dueños dejaron de usar; los que ya pertenecen a otro empleado se conservan
+     * @param ownerByEmail ID del empleado que deja cada email normalizado
+     * @return future que completa cuando se aplicaron todas las escrituras
+     */
+    CompletableFuture<Void> releaseEmails(Map<String, String> ownerByEmail);
+
+    /**
+     * Suma los deltas indicados a los contadores de reportes directos de supervisores existentes
+     * e incrementa su versión, ya que el contador forma parte de la representación
+     * @param deltas delta por ID de supervisor
+     * @return future que completa cuando se aplicaron todos los ajustes
+     */
+    CompletableFuture<Void> adjustDirectReports(Map<String, Integer> deltas);
+}
@@ -0,0 +1,21 @@
+package com.api.repositories;
+
+public class EmployeeWriteResult {
+    private final Long version;
+    private final boolean supervisorChanged;
+
+    public EmployeeWriteResult(Long version, boolean supervisorChanged) {
+        this.version = version;
+        this.supervisorChanged = supervisorChanged;
+    }
+
+    // Nueva versión del empleado, o null si no puede conocerse sin otra lectura
+    public Long getVersion() {
+        return version;
+    }
+
+    // Indica si la escritura movió al empleado a otro supervisor (hay que actualizar la ruta de sus descendientes)
+    public boolean isSupervisorChanged() {
+        return supervisorChanged;
+    }
+}
@@ -0,0 +1,343 @@
+package com.api.repositories;
+
+import com.api.models.Employee;
+import com.api.models.EmployeeFields;
+import com.api.models.EmployeePatch;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Implementación en memoria para pruebas y benchmarks: guarda los items ya convertidos, como DynamoDB
+public class InMemoryEmployeeRepository implements EmployeeRepository {
+
+    private final NavigableMap<String, Map<String, AttributeValue>> items = new ConcurrentSkipListMap<>();
+    // Dueño de cada email normalizado, como la tabla EmployeeEmails
+    private final Map<String, String> emailOwners = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Employee> findById(String id, EmployeeFields fields) {
+        return CompletableFuture.completedFuture(Employee.fromDynamoDBItem(project(items.get(id), fields)));
+    }
+
+    @Override
+    public CompletableFuture<Employee> findByEmail(String email, EmployeeFields fields) {
+        String emailKey = Employee.emailKey(email);
+        String id = emailOwners.get(emailKey);
+        Map<String, AttributeValue> item = id != null ? items.get(id) : null;
+        if (item == null || !emailKey.equals(Employee.emailKey(item.get("email").s()))) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.completedFuture(Employee.fromDynamoDBItem(project(item, fields)));
+    }
+
+    @Override
+    public CompletableFuture<EmployeePage> findPage(int limit, Map<String, String> exclusiveStartKey, EmployeeFields fields) {
+        NavigableMap<String, Map<String, AttributeValue>> remaining = exclusiveStartKey != null
+                ? items.tailMap(exclusiveStartKey.get("id"), false)
+                : items;
+
+        List<Employee> employees = new ArrayList<>(limit);
+        String lastId = null;
+        for (Map<String, AttributeValue> item : remaining.values()) {
+            if (employees.size() == limit) {
+                break;
+            }
+            Employee employee = Employee.fromDynamoDBItem(project(item, fields));
+            employees.add(employee);
+            lastId = employee.getId();
+        }
+
+        boolean hasMore = lastId != null && items.higherKey(lastId) != null;
+        return CompletableFuture.completedFuture(new EmployeePage(employees, hasMore ? Map.of("id", lastId) : null));
+    }
+
+    @Override
+    public CompletableFuture<EmployeePage> findSegmentPage(int segment, int totalSegments, int limit, Map<String, String> exclusiveStartKey) {
+        NavigableMap<String, Map<String, AttributeValue>> remaining = exclusiveStartKey != null
+                ? items.tailMap(exclusiveStartKey.get("id"), false)
+                : items;
+
+        // Cada ID pertenece a un único segmento, como con la clave de partición en DynamoDB
+        List<Employee> employees = new ArrayList<>(limit);
+        String lastId = null;
+        long bytes = 0;
+        for (Map.Entry<String, Map<String, AttributeValue>> entry : remaining.entrySet()) {
+            if (employees.size() == limit) {
+                break;
+            }
+            lastId = entry.getKey();
+            if (Math.floorMod(lastId.hashCode(), totalSegments) == segment) {
+                employees.add(Employee.fromDynamoDBItem(entry.getValue()));
+                bytes += itemSize(entry.getValue());
+            }
+        }
+
+        // Estimación como la de un Scan eventualmente consistente: media unidad por cada 4 KB leídos
+        double readUnits = Math.ceil(bytes / 4096.0) * 0.5;
+        boolean hasMore = lastId != null && items.higherKey(lastId) != null;
+        return CompletableFuture.completedFuture(new EmployeePage(employees, hasMore ? Map.of("id", lastId) : null, readUnits));
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> create(Employee employee) {
+        String supervisorId = employee.getSupervisor_id();
+        if (items.containsKey(employee.getId())) {
+            return CompletableFuture.failedFuture(
+                    new ConcurrentUpdateException("El ID " + employee.getId() + " ya está en uso", null));
+        }
+        String emailKey = Employee.emailKey(employee.getEmail());
+        if (emailOwners.containsKey(emailKey)) {
+            return CompletableFuture.failedFuture(new DuplicateEmailException(employee.getEmail()));
+        }
+        if (supervisorId != null) {
+            RuntimeException failure = checkSupervisor(supervisorId, employee.getAncestors());
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            }
+        }
+
+        items.put(employee.getId(), employee.toDynamoDBItem());
+        emailOwners.put(emailKey, employee.getId());
+        adjustDirectReports(supervisorId, 1);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public synchronized CompletableFuture<EmployeeWriteResult> patch(EmployeePatch patch) {
+        Map<String, AttributeValue> existing = items.get(patch.getId());
+        String supervisorId = patch.getSupervisor_id();
+        if (existing == null) {
+            return CompletableFuture.failedFuture(new EmployeeNotFoundException(patch.getId()));
+        }
+        long currentVersion = Employee.fromDynamoDBItem(existing).getVersion();
+        Long expectedVersion = patch.getExpectedVersion();
+        if (expectedVersion != null && expectedVersion != EmployeePatch.ANY_VERSION && expectedVersion != currentVersion) {
+            return CompletableFuture.failedFuture(new VersionMismatchException(patch.getId(), expectedVersion));
+        }
+        if (patch.isSupervisorPresent() && supervisorId != null) {
+            RuntimeException failure = checkSupervisor(supervisorId, patch.getAncestors());
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            }
+        }
+        // Como en DynamoDB, un email presente se reserva aunque no cambie: así la obtienen los empleados sin reserva
+        if (patch.getEmail() != null) {
+            String previousEmailKey = Employee.emailKey(existing.get("email").s());
+            String emailKey = Employee.emailKey(patch.getEmail());
+            String owner = emailOwners.get(emailKey);
+            if (owner != null && !owner.equals(patch.getId())) {
+                return CompletableFuture.failedFuture(new DuplicateEmailException(patch.getEmail()));
+            }
+            if (!emailKey.equals(previousEmailKey)) {
+                emailOwners.remove(previousEmailKey, patch.getId());
+            }
+            emailOwners.put(emailKey, patch.getId());
+        }
+
+        AttributeValue previousSupervisor = existing.get("supervisor_id");
+        String previousSupervisorId = previousSupervisor != null ? previousSupervisor.s() : null;
+
+        Map<String, AttributeValue> updated = new HashMap<>(existing);
+        updated.put("lastUpdated", AttributeValue.fromS(patch.getLastUpdated()));
+        updated.put("version", AttributeValue.fromN(Long.toString(currentVersion + 1)));
+        if (patch.getNombre() != null) {
+            updated.put("nombre", AttributeValue.fromS(patch.getNombre()));
+        }
+        if (patch.getEmail() != null) {
+            updated.put("email", AttributeValue.fromS(patch.getEmail()));
+        }
+        if (patch.isSupervisorPresent()) {
+            if (patch.getAncestors() != null) {
+                updated.put("ancestors", Employee.toAttributeValue(patch.getAncestors()));
+            }
+            if (supervisorId != null) {
+                updated.put("supervisor_id", AttributeValue.fromS(supervisorId));
+            } else {
+                updated.remove("supervisor_id");
+            }
+        }
+        items.put(patch.getId(), updated);
+
+        boolean supervisorChanged = patch.isSupervisorPresent() && !Objects.equals(previousSupervisorId, supervisorId);
+        if (supervisorChanged && !patch.isDeferDirectReports()) {
+            adjustDirectReports(previousSupervisorId, -1);
+            adjustDirectReports(supervisorId, 1);
+        }
+        return CompletableFuture.completedFuture(new EmployeeWriteResult(currentVersion + 1, supervisorChanged));
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> updateAncestors(Map<String, List<String>> ancestorsById) {
+        for (Map.Entry<String, List<String>> entry : ancestorsById.entrySet()) {
+            Map<String, AttributeValue> existing = items.get(entry.getKey());
+            if (existing != null) {
+                Map<String, AttributeValue> updated = new HashMap<>(existing);
+                updated.put("ancestors", Employee.toAttributeValue(entry.getValue()));
+                incrementVersion(updated);
+                items.put(entry.getKey(), updated);
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> findDirectReportIds(String supervisorId) {
+        List<String> ids = new ArrayList<>();
+        for (Map<String, AttributeValue> item : items.values()) {
+            AttributeValue supervisor = item.get("supervisor_id");
+            if (supervisor != null && supervisorId.equals(supervisor.s())) {
+                ids.add(item.get("id").s());
+            }
+        }
+        return CompletableFuture.completedFuture(ids);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Integer> materializeDirectReports(String supervisorId) {
+        int count = countDirectReports(supervisorId);
+        Map<String, AttributeValue> supervisor = items.get(supervisorId);
+        if (supervisor != null && !supervisor.containsKey("directReportsCount")) {
+            Map<String, AttributeValue> updated = new HashMap<>(supervisor);
+            updated.put("directReportsCount", AttributeValue.fromN(Integer.toString(count)));
+            items.put(supervisorId, updated);
+        }
+        return CompletableFuture.completedFuture(count);
+    }
+
+    private int countDirectReports(String supervisorId) {
+        return findDirectReportIds(supervisorId).join().size();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Employee>> findByIds(Collection<String> ids) {
+        Map<String, Employee> employees = new HashMap<>();
+        for (String id : ids) {
+            Map<String, AttributeValue> item = items.get(id);
+            if (item != null) {
+                employees.put(id, Employee.fromDynamoDBItem(item));
+            }
+        }
+        return CompletableFuture.completedFuture(employees);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> findEmailOwners(Collection<String> emailKeys) {
+        Map<String, String> owners = new HashMap<>();
+        for (String emailKey : emailKeys) {
+            String owner = emailOwners.get(emailKey);
+            if (owner != null) {
+                owners.put(emailKey, owner);
+            }
+        }
+        return CompletableFuture.completedFuture(owners);
+    }
+
+    @Override
+    public synchronized CompletableFuture<EmployeeBatchWriteResult> saveAll(List<Employee> employees) {
+        for (Employee employee : employees) {
+            items.put(employee.getId(), employee.toDynamoDBItem());
+            emailOwners.put(Employee.emailKey(employee.getEmail()), employee.getId());
+        }
+        return CompletableFuture.completedFuture(new EmployeeBatchWriteResult(Set.of(), Set.of()));
+    }
+
+    @Override
+    public CompletableFuture<Void> releaseEmails(Map<String, String> ownerByEmail) {
+        for (Map.Entry<String, String> entry : ownerByEmail.entrySet()) {
+            emailOwners.remove(entry.getKey(), entry.getValue());
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> adjustDirectReports(Map<String, Integer> deltas) {
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            if (items.containsKey(entry.getKey())) {
+                adjustDirectReports(entry.getKey(), entry.getValue());
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // Tamaño aproximado del item según las reglas de DynamoDB: nombres más valores
+    private static long itemSize(Map<String, AttributeValue> item) {
+        long size = 0;
+        for (Map.Entry<String, AttributeValue> attribute : item.entrySet()) {
+            AttributeValue value = attribute.getValue();
+            size += attribute.getKey().length();
+            if (value.s() != null) {
+                size += value.s().length();
+            } else if (value.n() != null) {
+                size += value.n().length();
+            } else if (value.hasL()) {
+                for (AttributeValue element : value.l()) {
+                    size += 1 + (element.s() != null ? element.s().length() : 0);
+                }
+            }
+        }
+        return size;
+    }
+
+    // Aplica la proyección como lo haría DynamoDB: el item devuelto solo trae los atributos pedidos
+    private static Map<String, AttributeValue> project(Map<String, AttributeValue> item, EmployeeFields fields) {
+        if (item == null || fields.isAll()) {
+            return item;
+        }
+        Map<String, AttributeValue> projected = new HashMap<>();
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            if (fields.contains(entry.getKey())) {
+                projected.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return projected;
+    }
+
+    /**
+     * Verifica, como la condición de DynamoDB, que el supervisor exista y conserve la ruta esperada
+     * @param supervisorId ID del supervisor
+     * @param ancestors ruta del empleado (null si no se verifica)
+     * @return la excepción a devolver, o null si la verificación pasa
+     */
+    private RuntimeException checkSupervisor(String supervisorId, List<String> ancestors) {
+        Map<String, AttributeValue> supervisor = items.get(supervisorId);
+        if (supervisor == null) {
+            return new SupervisorNotFoundException(supervisorId);
+        }
+        if (ancestors != null && !ancestors.isEmpty()) {
+            List<String> expected = ancestors.subList(0, ancestors.size() - 1);
+            List<String> stored = Employee.fromDynamoDBItem(supervisor).getAncestors();
+            if (stored == null ? !expected.isEmpty() : !stored.equals(expected)) {
+                return new ConcurrentUpdateException("El supervisor " + supervisorId + " cambió de posición en la jerarquía", null);
+            }
+        }
+        return null;
+    }
+
+    // Se invoca después de escribir el reporte: a un supervisor sin contador se le cuentan los reportes actuales
+    private void adjustDirectReports(String supervisorId, int delta) {
+        if (supervisorId == null) {
+            return;
+        }
+        Map<String, AttributeValue> supervisor = new HashMap<>(items.get(supervisorId));
+        AttributeValue current = supervisor.get("directReportsCount");
+        int count = current != null ? Integer.parseInt(current.n()) + delta : countDirectReports(supervisorId);
+        supervisor.put("directReportsCount", AttributeValue.fromN(Integer.toString(count)));
+        incrementVersion(supervisor);
+        items.put(supervisorId, supervisor);
+    }
+
+    // Como ADD version :one en DynamoDB: los items sin versión pasan a la 1
+    private static void incrementVersion(Map<String, AttributeValue> item) {
+        item.put("version", AttributeValue.fromN(Long.toString(Employee.fromDynamoDBItem(item).getVersion() + 1)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.api.repositories;
+
+import com.api.models.Token;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Implementación en memoria para pruebas y benchmarks
+public class InMemoryTokenRepository implements TokenRepository {
+
+    private final Map<String, Map<String, AttributeValue>> items = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Token> findByToken(String token) {
+        return CompletableFuture.completedFuture(Token.fromDynamoDBItem(items.get(token)));
+    }
+
+    @Override
+    public CompletableFuture<Void> save(Token token) {
+        items.put(token.getToken(), token.toDynamoDBItem());
+        return CompletableFuture.completedFuture(null);
+    }
+}
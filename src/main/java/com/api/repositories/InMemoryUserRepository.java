@@ -0,0 +1,27 @@
+package com.api.repositories;
+
+import com.api.models.User;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Implementación en memoria para pruebas y benchmarks
+public class InMemoryUserRepository implements UserRepository {
+
+    private final Map<String, Map<String, AttributeValue>> items = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<User> findByUsername(String username) {
+        return CompletableFuture.completedFuture(User.fromDynamoDBItem(items.get(username)));
+    }
+
+    /**
+     * Da de alta un usuario (en DynamoDB los usuarios se crean fuera de la API)
+     * @param user usuario a guardar
+     */
+    public void save(User user) {
+        items.put(user.getUsername(), user.toDynamoDBItem());
+    }
+}
@@ -0,0 +1,8 @@
+package com.api.repositories;
+
+public class InvalidHierarchyException extends RuntimeException {
+
+    public InvalidHierarchyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.api.repositories;
+
+public class SupervisorNotFoundException extends RuntimeException {
+
+    public SupervisorNotFoundException(String supervisorId) {
+        super("El supervisor " + supervisorId + " no existe");
+    }
+}
@@ -0,0 +1,22 @@
+package com.api.repositories;
+
+import com.api.models.Token;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface TokenRepository {
+
+    /**
+     * Busca un token emitido por el login
+     * @param token valor del token
+     * @return future con el token, o null si no existe
+     */
+    CompletableFuture<Token> findByToken(String token);
+
+    /**
+     * Guarda un token emitido por el login
+     * @param token token a guardar
+     * @return future que completa cuando el token quedó guardado
+     */
+    CompletableFuture<Void> save(Token token);
+}
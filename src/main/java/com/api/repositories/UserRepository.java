@@ -0,0 +1,15 @@
+package com.api.repositories;
+
+import com.api.models.User;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface UserRepository {
+
+    /**
+     * Busca un usuario por su nombre de usuario
+     * @param username nombre de usuario
+     * @return future con el usuario, o null si no existe
+     */
+    CompletableFuture<User> findByUsername(String username);
+}
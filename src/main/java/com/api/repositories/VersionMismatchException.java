@@ -0,0 +1,8 @@
+package com.api.repositories;
+
+public class VersionMismatchException extends RuntimeException {
+
+    public VersionMismatchException(String employeeId, long expectedVersion) {
+        super("El empleado " + employeeId + " ya no está en la versión " + expectedVersion);
+    }
+}
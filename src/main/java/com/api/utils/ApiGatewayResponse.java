@@ -1,13 +1,35 @@
 package com.api.utils;
 
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 
-import java.util.Collections;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
 
 public class ApiGatewayResponse {
 
+    // Por debajo de este tamaño comprimir no compensa el costo de CPU ni el aumento del base64
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    // Cabeceras comunes a todas las respuestas: inmutables y compartidas, nunca se copian si no hay adicionales
+    private static final Map<String, String> DEFAULT_HEADERS = Map.of(
+            "Content-Type", "application/json",
+            "Access-Control-Allow-Origin", "*",
+            "Access-Control-Allow-Methods", "GET,POST,PATCH,OPTIONS",
+            "Access-Control-Allow-Headers", "Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token,If-Match,If-None-Match",
+            "Access-Control-Expose-Headers", "ETag");
+
+    // Los mensajes de error son casi siempre los mismos literales: se serializan una sola vez
+    private static final int MAX_CACHED_MESSAGES = 256;
+    private static final Map<String, String> MESSAGE_BODIES = new ConcurrentHashMap<>();
+
     /**
      * Construye una respuesta para API Gateway con un código de estado y un mensaje
      * @param statusCode código HTTP de respuesta
@@ -15,15 +37,9 @@ public class ApiGatewayResponse {
      * @return objeto APIGatewayProxyResponseEvent
      */
     public static APIGatewayProxyResponseEvent build(int statusCode, String body) {
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-        headers.put("Access-Control-Allow-Origin", "*");
-        headers.put("Access-Control-Allow-Methods", "GET,POST,OPTIONS");
-        headers.put("Access-Control-Allow-Headers", "Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token");
-
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(statusCode)
-                .withHeaders(headers)
+                .withHeaders(DEFAULT_HEADERS)
                 .withBody(body)
                 .withIsBase64Encoded(false);
     }
@@ -36,20 +52,109 @@ public class ApiGatewayResponse {
      * @return objeto APIGatewayProxyResponseEvent
      */
     public static APIGatewayProxyResponseEvent build(int statusCode, String body, Map<String, String> headers) {
-        Map<String, String> allHeaders = new HashMap<>();
-        allHeaders.put("Content-Type", "application/json");
-        allHeaders.put("Access-Control-Allow-Origin", "*");
-        allHeaders.put("Access-Control-Allow-Methods", "GET,POST,OPTIONS");
-        allHeaders.put("Access-Control-Allow-Headers", "Content-Type,X-Amz-Date,Authorization,X-Api-Key,X-Amz-Security-Token");
-
-        if (headers != null) {
-            allHeaders.putAll(headers);
+        if (headers == null || headers.isEmpty()) {
+            return build(statusCode, body);
         }
 
+        Map<String, String> allHeaders = new HashMap<>(DEFAULT_HEADERS);
+        allHeaders.putAll(headers);
+
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(statusCode)
                 .withHeaders(allHeaders)
                 .withBody(body)
                 .withIsBase64Encoded(false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Construye una respuesta {"message": ...}, reutilizando el cuerpo ya serializado del mismo mensaje
+     * @param statusCode código HTTP de respuesta
+     * @param message mensaje de la respuesta
+     * @return objeto APIGatewayProxyResponseEvent
+     */
+    public static APIGatewayProxyResponseEvent message(int statusCode, String message) {
+        String body = MESSAGE_BODIES.get(message);
+        if (body == null) {
+            body = JsonBody.write(writer -> writer.beginObject().name("message").value(message).endObject());
+            // Los mensajes que incluyen datos de la solicitud no deben hacer crecer el cache sin límite
+            if (MESSAGE_BODIES.size() < MAX_CACHED_MESSAGES) {
+                MESSAGE_BODIES.putIfAbsent(message, body);
+            }
+        }
+        return build(statusCode, body);
+    }
+
+    /**
+     * Comprime el cuerpo con gzip si el cliente lo acepta (Accept-Encoding) y supera el umbral.
+     * El cuerpo comprimido viaja en base64; API Gateway lo entrega como binario gracias a BinaryMediaTypes
+     * @param request solicitud recibida
+     * @param response respuesta construida por el handler
+     * @return la misma respuesta, o una copia con el cuerpo comprimido
+     */
+    public static APIGatewayProxyResponseEvent encode(APIGatewayProxyRequestEvent request, APIGatewayProxyResponseEvent response) {
+        String body = response.getBody();
+        if (body == null || body.length() < COMPRESSION_THRESHOLD || Boolean.TRUE.equals(response.getIsBase64Encoded())) {
+            return response;
+        }
+
+        // La representación depende de Accept-Encoding: los caches intermedios deben distinguirla
+        Map<String, String> headers = new HashMap<>(response.getHeaders());
+        headers.put("Vary", "Accept-Encoding");
+        response.setHeaders(headers);
+        if (!acceptsGzip(ETags.header(request.getHeaders(), "Accept-Encoding"))) {
+            return response;
+        }
+
+        long start = System.nanoTime();
+        byte[] plain = body.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(plain.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Metrics.recordStage("Compression", start);
+        if (compressed.size() >= plain.length) {
+            return response;
+        }
+
+        headers.put("Content-Encoding", "gzip");
+        return response
+                .withBody(Base64.getEncoder().encodeToString(compressed.toByteArray()))
+                .withIsBase64Encoded(true);
+    }
+
+    /**
+     * Interpreta Accept-Encoding respetando los pesos q (gzip;q=0 lo rechaza, * lo acepta)
+     * @param acceptEncoding valor de la cabecera (puede ser null)
+     * @return true si el cliente acepta gzip
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQuality = -1;
+        double anyQuality = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        return gzipQuality >= 0 ? gzipQuality > 0 : anyQuality > 0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.api.utils;
+
+import java.util.concurrent.TimeUnit;
+
+// Limita, entre todos los hilos que lo comparten, las unidades de capacidad consumidas por segundo.
+// El costo de una lectura recién se conoce en la respuesta: se descuenta después, y si el saldo
+// queda negativo la siguiente lectura espera a que se recupere
+public final class CapacityRateLimiter {
+
+    private final double unitsPerSecond;
+    private final double maxBalance;
+    private double balance;
+    private long lastRefillNanos;
+
+    /**
+     * @param unitsPerSecond unidades de capacidad por segundo permitidas en promedio;
+     *                       se acumula como máximo un segundo sin usar
+     */
+    public CapacityRateLimiter(double unitsPerSecond) {
+        if (unitsPerSecond <= 0) {
+            throw new IllegalArgumentException("unitsPerSecond debe ser mayor que cero");
+        }
+        this.unitsPerSecond = unitsPerSecond;
+        this.maxBalance = unitsPerSecond;
+        this.balance = unitsPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Espera hasta que el saldo sea positivo. Varios hilos pueden pasar a la vez con el mismo saldo:
+     * el exceso queda acotado por el tamaño de página y se compensa en las lecturas siguientes
+     * @throws InterruptedException si se interrumpe la espera
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (balance > 0) {
+                    return;
+                }
+                waitNanos = (long) (-balance / unitsPerSecond * 1e9) + 1;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Descuenta la capacidad informada por una lectura
+     * @param units unidades consumidas
+     */
+    public synchronized void consume(double units) {
+        refill();
+        balance -= units;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        balance = Math.min(maxBalance, balance + (now - lastRefillNanos) / 1e9 * unitsPerSecond);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,28 @@
+package com.api.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Escribe los archivos de la exportación en un directorio local
+public class DirectoryExportSink implements ExportSink {
+
+    private final Path directory;
+
+    public DirectoryExportSink(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public OutputStream open(String name) throws IOException {
+        Path file = directory.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.newOutputStream(file);
+    }
+
+    @Override
+    public String describe(String name) {
+        return directory.resolve(name).toString();
+    }
+}
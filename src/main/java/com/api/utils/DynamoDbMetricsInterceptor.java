@@ -0,0 +1,52 @@
+package com.api.utils;
+
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+// Mide cada llamada del cliente de DynamoDB y la atribuye a la invocación que la inició
+public class DynamoDbMetricsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Metrics> METRICS = new ExecutionAttribute<>("EmployeeApiMetrics");
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("EmployeeApiStartNanos");
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        // Se toma la invocación al iniciar la llamada: la respuesta puede llegar en otro hilo
+        Metrics metrics = Metrics.current();
+        if (metrics != null) {
+            executionAttributes.putAttribute(METRICS, metrics);
+            executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        if (executionAttributes.getAttribute(METRICS) == null) {
+            return context.request();
+        }
+        return DynamoDbUsage.withConsumedCapacity(context.request());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, DynamoDbUsage.of(context.response()));
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, null);
+    }
+
+    private static void record(ExecutionAttributes executionAttributes, DynamoDbUsage usage) {
+        Metrics metrics = executionAttributes.getAttribute(METRICS);
+        if (metrics == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - executionAttributes.getAttribute(START_NANOS);
+        metrics.addDynamoDbCall(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME), nanos, usage);
+    }
+}
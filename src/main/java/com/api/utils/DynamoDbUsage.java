@@ -0,0 +1,162 @@
+package com.api.utils;
+
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.List;
+
+// Capacidad consumida e items examinados y devueltos por una llamada a DynamoDB
+public final class DynamoDbUsage {
+
+    private static final DynamoDbUsage NONE = new DynamoDbUsage(0, 0, 0, 0);
+
+    private final double readUnits;
+    private final double writeUnits;
+    private final long scannedItems;
+    private final long returnedItems;
+
+    private DynamoDbUsage(double readUnits, double writeUnits, long scannedItems, long returnedItems) {
+        this.readUnits = readUnits;
+        this.writeUnits = writeUnits;
+        this.scannedItems = scannedItems;
+        this.returnedItems = returnedItems;
+    }
+
+    /**
+     * Pide a DynamoDB que informe la capacidad consumida (no tiene costo adicional)
+     * @param request solicitud original
+     * @return la solicitud con ReturnConsumedCapacity=TOTAL, o la original si la operación no lo admite
+     */
+    public static SdkRequest withConsumedCapacity(SdkRequest request) {
+        ReturnConsumedCapacity total = ReturnConsumedCapacity.TOTAL;
+        if (request instanceof GetItemRequest) {
+            return ((GetItemRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        if (request instanceof BatchGetItemRequest) {
+            return ((BatchGetItemRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        if (request instanceof QueryRequest) {
+            return ((QueryRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        if (request instanceof ScanRequest) {
+            return ((ScanRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        if (request instanceof PutItemRequest) {
+            return ((PutItemRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        if (request instanceof UpdateItemRequest) {
+            return ((UpdateItemRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        if (request instanceof DeleteItemRequest) {
+            return ((DeleteItemRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        if (request instanceof BatchWriteItemRequest) {
+            return ((BatchWriteItemRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        if (request instanceof TransactWriteItemsRequest) {
+            return ((TransactWriteItemsRequest) request).toBuilder().returnConsumedCapacity(total).build();
+        }
+        return request;
+    }
+
+    /**
+     * Extrae el consumo de la respuesta de una operación. GetItem cuenta como un item examinado;
+     * en Scan y Query se usa ScannedCount, que incluye los items descartados por filtros
+     * @param response respuesta de DynamoDB
+     * @return consumo de la llamada (cero si la operación no lo informa)
+     */
+    public static DynamoDbUsage of(SdkResponse response) {
+        if (response instanceof GetItemResponse) {
+            GetItemResponse get = (GetItemResponse) response;
+            return new DynamoDbUsage(units(get.consumedCapacity()), 0, 1, get.hasItem() ? 1 : 0);
+        }
+        if (response instanceof BatchGetItemResponse) {
+            BatchGetItemResponse batch = (BatchGetItemResponse) response;
+            long items = 0;
+            for (List<?> tableItems : batch.responses().values()) {
+                items += tableItems.size();
+            }
+            return new DynamoDbUsage(units(batch.consumedCapacity()), 0, items, items);
+        }
+        if (response instanceof QueryResponse) {
+            QueryResponse query = (QueryResponse) response;
+            return new DynamoDbUsage(units(query.consumedCapacity()), 0, count(query.scannedCount()), count(query.count()));
+        }
+        if (response instanceof ScanResponse) {
+            ScanResponse scan = (ScanResponse) response;
+            return new DynamoDbUsage(units(scan.consumedCapacity()), 0, count(scan.scannedCount()), count(scan.count()));
+        }
+        if (response instanceof PutItemResponse) {
+            return writes(units(((PutItemResponse) response).consumedCapacity()));
+        }
+        if (response instanceof UpdateItemResponse) {
+            return writes(units(((UpdateItemResponse) response).consumedCapacity()));
+        }
+        if (response instanceof DeleteItemResponse) {
+            return writes(units(((DeleteItemResponse) response).consumedCapacity()));
+        }
+        if (response instanceof BatchWriteItemResponse) {
+            return writes(units(((BatchWriteItemResponse) response).consumedCapacity()));
+        }
+        if (response instanceof TransactWriteItemsResponse) {
+            return writes(units(((TransactWriteItemsResponse) response).consumedCapacity()));
+        }
+        return NONE;
+    }
+
+    public double getReadUnits() {
+        return readUnits;
+    }
+
+    public double getWriteUnits() {
+        return writeUnits;
+    }
+
+    public long getScannedItems() {
+        return scannedItems;
+    }
+
+    public long getReturnedItems() {
+        return returnedItems;
+    }
+
+    private static DynamoDbUsage writes(double units) {
+        return new DynamoDbUsage(0, units, 0, 0);
+    }
+
+    private static double units(ConsumedCapacity capacity) {
+        return capacity != null && capacity.capacityUnits() != null ? capacity.capacityUnits() : 0;
+    }
+
+    private static double units(List<ConsumedCapacity> capacities) {
+        double total = 0;
+        for (ConsumedCapacity capacity : capacities) {
+            total += units(capacity);
+        }
+        return total;
+    }
+
+    private static long count(Integer value) {
+        return value != null ? value : 0;
+    }
+}
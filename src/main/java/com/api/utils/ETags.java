@@ -0,0 +1,93 @@
+package com.api.utils;
+
+import com.api.models.EmployeePatch;
+
+import java.util.Map;
+
+public class ETags {
+
+    /**
+     * Formatea la versión de un item como ETag fuerte
+     * @param version versión del item
+     * @return ETag entre comillas
+     */
+    public static String format(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Interpreta una cabecera If-Match con una única versión
+     * @param header valor de la cabecera (puede ser null)
+     * @return versión esperada, EmployeePatch.ANY_VERSION para "*", o null si no se envió
+     * @throws IllegalArgumentException si el valor no corresponde a un ETag emitido por la API
+     */
+    public static Long parseIfMatch(String header) {
+        if (header == null || header.trim().isEmpty()) {
+            return null;
+        }
+        String value = header.trim();
+        if (value.equals("*")) {
+            return EmployeePatch.ANY_VERSION;
+        }
+        // If-Match usa comparación fuerte: un ETag débil nunca coincide
+        if (value.startsWith("W/")) {
+            throw new IllegalArgumentException("If-Match no admite ETags débiles: " + value);
+        }
+        try {
+            return Long.parseLong(unquote(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match inválido: " + value, e);
+        }
+    }
+
+    /**
+     * Indica si alguna de las entidades de If-None-Match corresponde a la versión actual
+     * @param header valor de la cabecera (puede ser null)
+     * @param version versión actual del item
+     * @return true si el cliente ya tiene esta versión
+     */
+    public static boolean matchesIfNoneMatch(String header, long version) {
+        if (header == null || header.trim().isEmpty()) {
+            return false;
+        }
+        String current = Long.toString(version);
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || unquote(value).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Busca una cabecera sin distinguir mayúsculas, como las envía API Gateway según el cliente
+     * @param headers cabeceras de la solicitud (puede ser null)
+     * @param name nombre de la cabecera
+     * @return valor de la cabecera, o null si no se envió
+     */
+    public static String header(Map<String, String> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        String value = headers.get(name);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    // La comparación débil de If-None-Match ignora el prefijo W/
+    private static String unquote(String value) {
+        String result = value.startsWith("W/") ? value.substring(2) : value;
+        if (result.length() >= 2 && result.startsWith("\"") && result.endsWith("\"")) {
+            result = result.substring(1, result.length() - 1);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,182 @@
+package com.api.utils;
+
+import com.api.models.Employee;
+import com.api.repositories.EmployeePage;
+import com.api.repositories.EmployeeRepository;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+// Exporta la tabla completa recorriéndola por segmentos en paralelo, un hilo por segmento.
+// Cada segmento escribe sus empleados como NDJSON (un objeto JSON por línea) comprimido con gzip,
+// y todos comparten un límite de capacidad de lectura para no quitársela al tráfico de la API
+public class EmployeeExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EmployeeRepository repository;
+    private final int totalSegments;
+    private final int pageSize;
+    private final double readUnitsPerSecond;
+
+    /**
+     * @param repository repositorio de empleados
+     * @param totalSegments cantidad de segmentos, y de hilos que leen en paralelo
+     * @param pageSize cantidad máxima de empleados por lectura; acota lo que se excede el límite de capacidad
+     * @param readUnitsPerSecond capacidad de lectura por segundo para toda la exportación
+     */
+    public EmployeeExporter(EmployeeRepository repository, int totalSegments, int pageSize, double readUnitsPerSecond) {
+        if (totalSegments < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("totalSegments y pageSize deben ser mayores que cero");
+        }
+        this.repository = repository;
+        this.totalSegments = totalSegments;
+        this.pageSize = pageSize;
+        this.readUnitsPerSecond = readUnitsPerSecond;
+    }
+
+    /**
+     * Nombre del archivo de un segmento
+     * @param segment número de segmento
+     * @param totalSegments cantidad de segmentos
+     * @return por ejemplo employees-0003-of-0016.ndjson.gz
+     */
+    public static String fileName(int segment, int totalSegments) {
+        return String.format(Locale.ROOT, "employees-%04d-of-%04d.ndjson.gz", segment, totalSegments);
+    }
+
+    /**
+     * Ejecuta la exportación y espera a que terminen todos los segmentos
+     * @param sink destino de los archivos
+     * @return resumen de la exportación
+     * @throws IOException si falla la lectura o la escritura de algún segmento
+     * @throws InterruptedException si se interrumpe la espera
+     */
+    public Result export(ExportSink sink) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        CapacityRateLimiter rateLimiter = new CapacityRateLimiter(readUnitsPerSecond);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(totalSegments, runnable -> {
+            Thread thread = new Thread(runnable, "employee-export-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<SegmentResult>> segments = new ArrayList<>(totalSegments);
+            for (int segment = 0; segment < totalSegments; segment++) {
+                int current = segment;
+                segments.add(executor.submit(() -> exportSegment(current, sink, rateLimiter)));
+            }
+
+            long employees = 0;
+            double readUnits = 0;
+            List<String> files = new ArrayList<>(totalSegments);
+            for (int segment = 0; segment < totalSegments; segment++) {
+                SegmentResult result = awaitSegment(segments.get(segment));
+                employees += result.employees;
+                readUnits += result.readUnits;
+                files.add(sink.describe(fileName(segment, totalSegments)));
+            }
+            return new Result(files, employees, readUnits, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            // Si un segmento falló se interrumpen los demás: la exportación no queda completa de todos modos
+            executor.shutdownNow();
+        }
+    }
+
+    private SegmentResult exportSegment(int segment, ExportSink sink, CapacityRateLimiter rateLimiter) throws IOException, InterruptedException {
+        SegmentResult result = new SegmentResult();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(sink.open(fileName(segment, totalSegments)), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            Map<String, String> startKey = null;
+            do {
+                rateLimiter.acquire();
+                EmployeePage page = repository.findSegmentPage(segment, totalSegments, pageSize, startKey).join();
+                rateLimiter.consume(page.getReadUnits());
+                result.readUnits += page.getReadUnits();
+
+                for (Employee employee : page.getEmployees()) {
+                    JsonWriter writer = new JsonWriter(out);
+                    writer.setSerializeNulls(false);
+                    employee.writeTo(writer);
+                    out.write('\n');
+                }
+                result.employees += page.getEmployees().size();
+                startKey = page.getLastEvaluatedKey();
+            } while (startKey != null);
+        }
+        return result;
+    }
+
+    private static SegmentResult awaitSegment(Future<SegmentResult> segment) throws IOException, InterruptedException {
+        try {
+            return segment.get();
+        } catch (ExecutionException e) {
+            Throwable cause = Futures.unwrap(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static class SegmentResult {
+        private long employees;
+        private double readUnits;
+    }
+
+    // Resumen de una exportación completa
+    public static class Result {
+        private final List<String> files;
+        private final long employees;
+        private final double readUnits;
+        private final long durationMillis;
+
+        Result(List<String> files, long employees, double readUnits, long durationMillis) {
+            this.files = files;
+            this.employees = employees;
+            this.readUnits = readUnits;
+            this.durationMillis = durationMillis;
+        }
+
+        // Ubicación de cada archivo, uno por segmento
+        public List<String> getFiles() {
+            return files;
+        }
+
+        public long getEmployees() {
+            return employees;
+        }
+
+        // Capacidad de lectura consumida por todos los segmentos
+        public double getReadUnits() {
+            return readUnits;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.api.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Destino de los archivos de una exportación: cada segmento escribe el suyo en paralelo
+public interface ExportSink {
+
+    /**
+     * Abre un archivo nuevo; queda publicado al cerrar el stream
+     * @param name nombre del archivo, relativo al destino
+     * @return stream de escritura
+     * @throws IOException si no se puede crear
+     */
+    OutputStream open(String name) throws IOException;
+
+    /**
+     * Ubicación de un archivo, para informarla en el resumen
+     * @param name nombre del archivo
+     * @return ruta o URI
+     */
+    String describe(String name);
+}
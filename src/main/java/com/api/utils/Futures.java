@@ -0,0 +1,47 @@
+package com.api.utils;
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class Futures {
+
+    // Margen reservado para construir y devolver la respuesta antes de que Lambda corte la invocación
+    private static final long SAFETY_MARGIN_MILLIS = 500;
+    private static final long MIN_WAIT_MILLIS = 50;
+
+    /**
+     * Espera el resultado de un future sin superar el tiempo que le queda a la invocación
+     * @param future operación a esperar
+     * @param context contexto de la invocación de Lambda
+     * @return el resultado de la operación
+     * @throws TimeoutException si la operación no terminó antes del plazo (el future queda cancelado)
+     * @throws ExecutionException si la operación falló
+     */
+    public static <T> T await(CompletableFuture<T> future, Context context) throws TimeoutException, ExecutionException, InterruptedException {
+        long deadline = Math.max(MIN_WAIT_MILLIS, context.getRemainingTimeInMillis() - SAFETY_MARGIN_MILLIS);
+        try {
+            return future.get(deadline, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene la causa real de un error propagado por un CompletableFuture
+     * @param error error recibido (posiblemente envuelto en CompletionException)
+     * @return la excepción original
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,113 @@
+package com.api.utils;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+
+// Serializa cuerpos de respuesta con JsonWriter sobre un buffer reutilizado, compactos salvo que se pida pretty=true
+public final class JsonBody {
+
+    // Buffers más grandes que esto no se conservan entre invocaciones
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    // Un buffer por hilo: las continuaciones de los futures pueden ejecutarse en hilos del SDK
+    private static final ThreadLocal<BuilderWriter> BUFFER = ThreadLocal.withInitial(BuilderWriter::new);
+
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(JsonWriter writer) throws IOException;
+    }
+
+    private JsonBody() {
+    }
+
+    /**
+     * Indica si el cliente pidió la salida con indentación (?pretty=true)
+     * @param request solicitud recibida
+     * @return true si se pidió pretty
+     */
+    public static boolean isPretty(APIGatewayProxyRequestEvent request) {
+        Map<String, String> queryParams = request.getQueryStringParameters();
+        return queryParams != null && "true".equalsIgnoreCase(queryParams.get("pretty"));
+    }
+
+    /**
+     * Escribe un cuerpo JSON compacto
+     * @param content escritura del contenido
+     * @return cuerpo JSON
+     */
+    public static String write(Content content) {
+        return write(false, content);
+    }
+
+    /**
+     * Escribe un cuerpo JSON omitiendo los atributos nulos, igual que Gson
+     * @param pretty si es true se indenta la salida
+     * @param content escritura del contenido
+     * @return cuerpo JSON
+     */
+    public static String write(boolean pretty, Content content) {
+        long start = System.nanoTime();
+        BuilderWriter buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            JsonWriter writer = new JsonWriter(buffer);
+            writer.setSerializeNulls(false);
+            if (pretty) {
+                writer.setIndent("  ");
+            }
+            content.writeTo(writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String body = buffer.builder.toString();
+        if (buffer.builder.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        Metrics.recordStage("Serialization", start);
+        return body;
+    }
+
+    // Writer sobre StringBuilder: a diferencia de StringWriter no sincroniza cada escritura
+    private static final class BuilderWriter extends Writer {
+        private final StringBuilder builder = new StringBuilder(4096);
+
+        private void reset() {
+            builder.setLength(0);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            builder.append(string, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+
+        @Override
+        public Writer append(CharSequence sequence) {
+            builder.append(sequence);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.api.utils;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Métricas de una invocación: tiempo por etapa (autenticación, cada llamada a DynamoDB, serialización,
+// compresión), capacidad consumida, items examinados y devueltos, bytes y arranque en frío.
+// Al terminar se escriben como una línea JSON en formato EMF (Embedded Metric Format) en stdout:
+// CloudWatch Logs las convierte en métricas sin llamadas adicionales desde la función
+public final class Metrics {
+
+    private static final String NAMESPACE = System.getenv().getOrDefault("METRICS_NAMESPACE", "EmployeeApi");
+
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getenv("METRICS_ENABLED"));
+    private static volatile PrintStream output = System.out;
+
+    // Lambda procesa una invocación a la vez por entorno: la invocación en curso se comparte entre hilos,
+    // así las llamadas al SDK y la serialización, que corren en otros hilos, se atribuyen a ella
+    private static volatile Metrics current;
+
+    private final String handler;
+    private final String requestId;
+    private final boolean coldStart;
+    private final long startNanos = System.nanoTime();
+    private final long requestBytes;
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private final Map<String, Integer> dynamoDbCalls = new LinkedHashMap<>();
+    private double readUnits;
+    private double writeUnits;
+    private long scannedItems;
+    private long returnedItems;
+
+    private Metrics(String handler, String requestId, boolean coldStart, long requestBytes) {
+        this.handler = handler;
+        this.requestId = requestId;
+        this.coldStart = coldStart;
+        this.requestBytes = requestBytes;
+    }
+
+    /**
+     * Comienza a medir una invocación y la marca como la invocación en curso
+     * @param handler nombre del handler, usado como dimensión
+     * @param request solicitud recibida
+     * @param context contexto de la invocación
+     * @param coldStart si es la primera invocación del contenedor
+     * @return métricas de la invocación
+     */
+    public static Metrics start(String handler, APIGatewayProxyRequestEvent request, Context context, boolean coldStart) {
+        Metrics metrics = new Metrics(handler, context.getAwsRequestId(), coldStart, utf8Length(request.getBody()));
+        if (enabled) {
+            current = metrics;
+        }
+        return metrics;
+    }
+
+    /**
+     * Invocación en curso
+     * @return sus métricas, o null si no hay ninguna o las métricas están desactivadas
+     */
+    public static Metrics current() {
+        return current;
+    }
+
+    /**
+     * Suma a la invocación en curso el tiempo de una etapa que terminó
+     * @param stage nombre de la etapa
+     * @param startNanos valor de System.nanoTime() al comenzar la etapa
+     */
+    public static void recordStage(String stage, long startNanos) {
+        Metrics metrics = current;
+        if (metrics != null) {
+            metrics.addStage(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Activa o desactiva la emisión (por defecto según METRICS_ENABLED), por ejemplo en benchmarks
+     * que ejecutan muchas invocaciones concurrentes en la misma JVM
+     * @param value true para emitir
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+        if (!value) {
+            current = null;
+        }
+    }
+
+    /**
+     * Cambia el destino de las líneas EMF (por defecto stdout)
+     * @param stream destino
+     */
+    public static void setOutput(PrintStream stream) {
+        output = stream;
+    }
+
+    /**
+     * Mide el tiempo de una operación asíncrona desde que se inicia hasta que se completa; se recibe
+     * sin iniciar para incluir también la parte síncrona (armar la solicitud, firmar, encolarla)
+     * @param stage nombre de la etapa
+     * @param operation inicia la operación
+     * @return el future de la operación
+     */
+    public <T> CompletableFuture<T> time(String stage, Supplier<CompletableFuture<T>> operation) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (RuntimeException e) {
+            addStage(stage, System.nanoTime() - start);
+            throw e;
+        }
+        future.whenComplete((result, error) -> addStage(stage, System.nanoTime() - start));
+        return future;
+    }
+
+    public synchronized void addStage(String stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+
+    /**
+     * Registra una llamada a DynamoDB
+     * @param operation nombre de la operación, por ejemplo GetItem
+     * @param nanos duración de la llamada
+     * @param usage consumo informado en la respuesta (null si la llamada falló)
+     */
+    public synchronized void addDynamoDbCall(String operation, long nanos, DynamoDbUsage usage) {
+        stageNanos.merge("DynamoDB" + operation, nanos, Long::sum);
+        dynamoDbCalls.merge(operation, 1, Integer::sum);
+        if (usage != null) {
+            readUnits += usage.getReadUnits();
+            writeUnits += usage.getWriteUnits();
+            scannedItems += usage.getScannedItems();
+            returnedItems += usage.getReturnedItems();
+        }
+    }
+
+    /**
+     * Termina la medición y escribe la línea EMF
+     * @param response respuesta que se devuelve a API Gateway
+     * @return la misma respuesta
+     */
+    public APIGatewayProxyResponseEvent emit(APIGatewayProxyResponseEvent response) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        if (current == this) {
+            current = null;
+        }
+        if (enabled) {
+            output.println(toEmf(response, latencyNanos));
+        }
+        return response;
+    }
+
+    /**
+     * Arma el documento EMF: la declaración de métricas en _aws y los valores como atributos de primer nivel
+     * @param response respuesta de la invocación
+     * @param latencyNanos duración total
+     * @return línea JSON
+     */
+    synchronized String toEmf(APIGatewayProxyResponseEvent response, long latencyNanos) {
+        Map<String, Double> milliseconds = new LinkedHashMap<>();
+        milliseconds.put("Latency", latencyNanos / 1e6);
+        long dynamoDbNanos = 0;
+        for (Map.Entry<String, Long> stage : stageNanos.entrySet()) {
+            milliseconds.put(stage.getKey() + "Time", stage.getValue() / 1e6);
+            if (stage.getKey().startsWith("DynamoDB")) {
+                dynamoDbNanos += stage.getValue();
+            }
+        }
+        int calls = 0;
+        for (int count : dynamoDbCalls.values()) {
+            calls += count;
+        }
+
+        Map<String, Number> counts = new LinkedHashMap<>();
+        counts.put("ColdStart", coldStart ? 1 : 0);
+        counts.put("DynamoDBCalls", calls);
+        counts.put("ConsumedReadCapacity", readUnits);
+        counts.put("ConsumedWriteCapacity", writeUnits);
+        counts.put("ItemsScanned", scannedItems);
+        counts.put("ItemsReturned", returnedItems);
+
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        bytes.put("RequestBytes", requestBytes);
+        bytes.put("ResponseBytes", utf8Length(response != null ? response.getBody() : null));
+
+        StringWriter line = new StringWriter(1024);
+        try {
+            JsonWriter writer = new JsonWriter(line);
+            writer.beginObject();
+            writer.name("_aws").beginObject();
+            writer.name("Timestamp").value(System.currentTimeMillis());
+            writer.name("CloudWatchMetrics").beginArray().beginObject();
+            writer.name("Namespace").value(NAMESPACE);
+            writer.name("Dimensions").beginArray().beginArray().value("Handler").endArray().endArray();
+            writer.name("Metrics").beginArray();
+            declare(writer, milliseconds.keySet(), "Milliseconds");
+            writer.beginObject().name("Name").value("DynamoDBTime").name("Unit").value("Milliseconds").endObject();
+            declare(writer, counts.keySet(), "Count");
+            declare(writer, bytes.keySet(), "Bytes");
+            writer.endArray();
+            writer.endObject().endArray();
+            writer.endObject();
+
+            writer.name("Handler").value(handler);
+            for (Map.Entry<String, Double> metric : milliseconds.entrySet()) {
+                writer.name(metric.getKey()).value(round(metric.getValue()));
+            }
+            writer.name("DynamoDBTime").value(round(dynamoDbNanos / 1e6));
+            for (Map.Entry<String, Number> metric : counts.entrySet()) {
+                writer.name(metric.getKey()).value(metric.getValue());
+            }
+            for (Map.Entry<String, Long> metric : bytes.entrySet()) {
+                writer.name(metric.getKey()).value(metric.getValue());
+            }
+
+            // Propiedades: quedan en el log para buscar la invocación, pero no generan métricas
+            writer.name("requestId").value(requestId);
+            writer.name("statusCode").value(response != null ? response.getStatusCode() : null);
+            writer.name("coldStart").value(coldStart);
+            writer.name("dynamoDbCalls").beginObject();
+            for (Map.Entry<String, Integer> operation : dynamoDbCalls.entrySet()) {
+                writer.name(operation.getKey()).value(operation.getValue());
+            }
+            writer.endObject();
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return line.toString();
+    }
+
+    private static void declare(JsonWriter writer, Iterable<String> names, String unit) throws IOException {
+        for (String name : names) {
+            writer.beginObject().name("Name").value(name).name("Unit").value(unit).endObject();
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * Cantidad de bytes del texto en UTF-8, sin codificarlo
+     * @param text texto (puede ser null)
+     * @return bytes que ocupa
+     */
+    private static long utf8Length(String text) {
+        if (text == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
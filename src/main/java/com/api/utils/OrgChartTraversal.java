@@ -0,0 +1,113 @@
+package com.api.utils;
+
+import com.api.models.Employee;
+import com.api.models.Subtree;
+import com.api.repositories.EmployeeRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class OrgChartTraversal {
+
+    private final EmployeeRepository employeeRepository;
+
+    public OrgChartTraversal(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Recorre en anchura los empleados que dependen (directa o indirectamente) de un empleado
+     * @param rootId ID del empleado raíz
+     * @param maxDepth cantidad máxima de niveles a recorrer
+     * @param maxSize cantidad máxima de descendientes a incluir
+     * @param countsOnly si es true solo se cuentan los descendientes, sin leer sus items
+     * @return future con el subárbol, o null si la raíz no existe
+     */
+    public CompletableFuture<Subtree> traverse(String rootId, int maxDepth, int maxSize, boolean countsOnly) {
+        return employeeRepository.findById(rootId).thenCompose(root -> root == null
+                ? CompletableFuture.completedFuture(null)
+                : traverse(root, maxDepth, maxSize, countsOnly));
+    }
+
+    /**
+     * Recorre los descendientes de un empleado ya leído
+     * @param root empleado raíz
+     * @param maxDepth cantidad máxima de niveles a recorrer
+     * @param maxSize cantidad máxima de descendientes a incluir
+     * @param countsOnly si es true solo se cuentan los descendientes, sin leer sus items
+     * @return future con el subárbol
+     */
+    public CompletableFuture<Subtree> traverse(Employee root, int maxDepth, int maxSize, boolean countsOnly) {
+        Subtree subtree = new Subtree(root);
+        Set<String> visited = new HashSet<>();
+        visited.add(root.getId());
+        return visitLevel(List.of(root.getId()), 1, maxDepth, maxSize, countsOnly, visited, subtree);
+    }
+
+    /**
+     * Obtiene el siguiente nivel consultando en paralelo los reportes directos de todo el nivel actual,
+     * y lee los items del nivel en una única lectura agrupada
+     * @param frontier IDs del nivel actual
+     * @param depth profundidad del nivel que se va a obtener
+     * @param maxDepth cantidad máxima de niveles
+     * @param maxSize cantidad máxima de descendientes
+     * @param countsOnly si es true no se leen los items
+     * @param visited IDs ya alcanzados, para detectar ciclos
+     * @param subtree resultado en construcción
+     * @return future con el subárbol completo
+     */
+    private CompletableFuture<Subtree> visitLevel(List<String> frontier, int depth, int maxDepth, int maxSize, boolean countsOnly,
+                                                  Set<String> visited, Subtree subtree) {
+        if (frontier.isEmpty() || depth > maxDepth || subtree.isTruncated()) {
+            return CompletableFuture.completedFuture(subtree);
+        }
+
+        List<CompletableFuture<List<String>>> queries = new ArrayList<>(frontier.size());
+        for (String supervisorId : frontier) {
+            queries.add(employeeRepository.findDirectReportIds(supervisorId));
+        }
+
+        return CompletableFuture.allOf(queries.toArray(new CompletableFuture<?>[0])).thenCompose(ignored -> {
+            List<String> nextLevel = new ArrayList<>();
+            for (int i = 0; i < queries.size(); i++) {
+                for (String id : queries.get(i).join()) {
+                    if (!visited.add(id)) {
+                        // Alcanzado por segundo camino: la cadena de supervisores forma un ciclo
+                        subtree.getCycles().add(id);
+                        continue;
+                    }
+                    if (subtree.getTotalCount() >= maxSize) {
+                        subtree.setTruncated(true);
+                        break;
+                    }
+                    subtree.getDepthById().put(id, depth);
+                    subtree.getParentById().put(id, frontier.get(i));
+                    nextLevel.add(id);
+                }
+            }
+            if (nextLevel.isEmpty()) {
+                return CompletableFuture.completedFuture(subtree);
+            }
+            subtree.getLevelCounts().add(nextLevel.size());
+
+            CompletableFuture<Void> loaded = countsOnly
+                    ? CompletableFuture.completedFuture(null)
+                    : employeeRepository.findByIds(nextLevel).thenAccept(employees -> addInOrder(nextLevel, employees, subtree));
+
+            return loaded.thenCompose(done -> visitLevel(nextLevel, depth + 1, maxDepth, maxSize, countsOnly, visited, subtree));
+        });
+    }
+
+    private static void addInOrder(List<String> ids, Map<String, Employee> employees, Subtree subtree) {
+        for (String id : ids) {
+            Employee employee = employees.get(id);
+            if (employee != null) {
+                subtree.getEmployees().add(employee);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.api.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PaginationToken {
+
+    private static final Gson gson = new Gson();
+
+    /**
+     * Codifica la última clave evaluada por DynamoDB como un token opaco para el cliente
+     * @param lastEvaluatedKey clave devuelta por DynamoDB (puede ser null)
+     * @return token de continuación, o null si no hay más páginas
+     */
+    public static String encode(Map<String, String> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, String> entry : lastEvaluatedKey.entrySet()) {
+            json.addProperty(entry.getKey(), entry.getValue());
+        }
+
+        byte[] bytes = gson.toJson(json).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Decodifica un token de continuación a la clave de inicio de la siguiente página
+     * @param token token recibido del cliente
+     * @return clave desde la que continuar
+     * @throws IllegalArgumentException si el token no es válido
+     */
+    public static Map<String, String> decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            JsonObject json = gson.fromJson(new String(bytes, StandardCharsets.UTF_8), JsonObject.class);
+            if (json == null || json.size() == 0) {
+                throw new IllegalArgumentException("Token de paginación inválido");
+            }
+
+            Map<String, String> key = new HashMap<>();
+            for (String name : json.keySet()) {
+                key.put(name, json.get(name).getAsString());
+            }
+            return key;
+        } catch (IllegalArgumentException | JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            throw new IllegalArgumentException("Token de paginación inválido", e);
+        }
+    }
+}
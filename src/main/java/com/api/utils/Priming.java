@@ -0,0 +1,80 @@
+package com.api.utils;
+
+import com.api.models.Employee;
+import com.api.models.LoginRequest;
+import com.google.gson.Gson;
+import org.crac.Context;
+import org.crac.Resource;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class Priming implements Resource {
+
+    private static final int ITERATIONS = 200;
+    private static final String PRIMING_KEY = "__priming__";
+
+    private final RuntimeContext runtime;
+
+    public Priming(RuntimeContext runtime) {
+        this.runtime = runtime;
+    }
+
+    /**
+     * Antes del snapshot: carga y ejercita las rutas calientes para que queden compiladas en la imagen
+     * @param context contexto de CRaC
+     */
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws IOException {
+        Gson gson = runtime.getGson();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            Employee employee = new Employee("priming-" + i, "Priming", "priming@example.com", "priming-supervisor", "1970-01-01T00:00:00Z");
+            employee.setDirectReportsCount(i);
+
+            Map<String, AttributeValue> item = employee.toDynamoDBItem();
+            Employee restored = Employee.fromDynamoDBItem(item);
+            Employee parsed = gson.fromJson(gson.toJson(restored), Employee.class);
+
+            String body = JsonBody.write(writer -> {
+                writer.beginObject();
+                writer.name("message").value("priming");
+                writer.name("employee");
+                parsed.writeTo(writer);
+                writer.endObject();
+            });
+            JsonBody.write(true, parsed::writeTo);
+
+            LoginRequest loginRequest = gson.fromJson("{\"username\":\"priming\",\"password\":\"priming\",\"expirationMinutes\":5}", LoginRequest.class);
+            gson.toJson(loginRequest);
+
+            PaginationToken.decode(PaginationToken.encode(Map.of("id", employee.getId())));
+            TokenGenerator.generateToken();
+            ApiGatewayResponse.build(200, body);
+            ApiGatewayResponse.build(400, body, Map.of("X-Priming", "true"));
+            ApiGatewayResponse.message(401, "Token inválido");
+            ApiGatewayResponse.message(404, "Empleado no encontrado");
+        }
+
+        // Ejercitar el marshalling y la pila HTTP del SDK con una lectura inofensiva
+        primeDynamoDB();
+    }
+
+    /**
+     * Después de restaurar: las conexiones del snapshot ya no son válidas, se abre una nueva antes de la primera invocación
+     * @param context contexto de CRaC
+     */
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        primeDynamoDB();
+    }
+
+    private void primeDynamoDB() {
+        try {
+            runtime.getTokenRepository().findByToken(PRIMING_KEY).join();
+        } catch (RuntimeException e) {
+            // El priming nunca debe impedir el checkpoint ni la restauración
+        }
+    }
+}
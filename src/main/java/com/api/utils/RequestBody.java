@@ -0,0 +1,23 @@
+package com.api.utils;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class RequestBody {
+
+    /**
+     * Obtiene el cuerpo de la solicitud como texto. Con BinaryMediaTypes habilitado API Gateway
+     * puede entregarlo en base64, según el Content-Type que envíe el cliente
+     * @param request solicitud recibida
+     * @return cuerpo de la solicitud (null si no tiene)
+     */
+    public static String text(APIGatewayProxyRequestEvent request) {
+        String body = request.getBody();
+        if (body == null || !Boolean.TRUE.equals(request.getIsBase64Encoded())) {
+            return body;
+        }
+        return new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,198 @@
+package com.api.utils;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.api.repositories.DynamoDbEmployeeRepository;
+import com.api.repositories.DynamoDbTokenRepository;
+import com.api.repositories.DynamoDbUserRepository;
+import com.api.repositories.EmployeeRepository;
+import com.api.repositories.InMemoryEmployeeRepository;
+import com.api.repositories.InMemoryTokenRepository;
+import com.api.repositories.InMemoryUserRepository;
+import com.api.repositories.TokenRepository;
+import com.api.repositories.UserRepository;
+import com.google.gson.Gson;
+import org.crac.Core;
+import software.amazon.awssdk.auth.credentials.ContainerCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RuntimeContext {
+
+    private static final int MAX_CONCURRENCY = 50;
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration API_CALL_ATTEMPT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration API_CALL_TIMEOUT = Duration.ofSeconds(10);
+    private static final int IO_QUEUE_CAPACITY = 1000;
+
+    private final ExecutorService ioExecutor;
+    private final DynamoDbAsyncClient dynamoDbClient;
+    private final UserRepository userRepository;
+    private final TokenRepository tokenRepository;
+    private final EmployeeRepository employeeRepository;
+    private final TokenVerifier tokenVerifier;
+    private final Gson gson;
+    private final AtomicBoolean coldStartPending = new AtomicBoolean(true);
+    private long initDurationMillis;
+    private Priming priming;
+
+    public RuntimeContext(ExecutorService ioExecutor, DynamoDbAsyncClient dynamoDbClient, UserRepository userRepository,
+                          TokenRepository tokenRepository, EmployeeRepository employeeRepository) {
+        long start = System.nanoTime();
+
+        this.ioExecutor = ioExecutor;
+        this.dynamoDbClient = dynamoDbClient;
+        this.userRepository = userRepository;
+        this.tokenRepository = tokenRepository;
+        this.employeeRepository = employeeRepository;
+        this.tokenVerifier = new TokenVerifier(tokenRepository);
+        this.gson = new Gson();
+
+        this.initDurationMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Devuelve el contexto compartido por todos los handlers del contenedor, creándolo en el primer uso
+     * @return instancia única de RuntimeContext
+     */
+    public static RuntimeContext get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Crea un contexto independiente respaldado por repositorios en memoria, para pruebas y benchmarks
+     * @return nuevo RuntimeContext sin acceso a AWS
+     */
+    public static RuntimeContext inMemory() {
+        return new RuntimeContext(createIoExecutor(), null, new InMemoryUserRepository(), new InMemoryTokenRepository(), new InMemoryEmployeeRepository());
+    }
+
+    private static RuntimeContext createDynamoDbContext() {
+        long start = System.nanoTime();
+
+        // Las continuaciones de las llamadas a DynamoDB corren en el pool propio, no en el ForkJoinPool común
+        ExecutorService ioExecutor = createIoExecutor();
+        DynamoDbAsyncClientBuilder builder = DynamoDbAsyncClient.builder()
+                .asyncConfiguration(config -> config
+                        .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, ioExecutor))
+                .httpClientBuilder(AwsCrtAsyncHttpClient.builder()
+                        .maxConcurrency(MAX_CONCURRENCY)
+                        .connectionTimeout(CONNECTION_TIMEOUT))
+                .overrideConfiguration(config -> config
+                        .apiCallAttemptTimeout(API_CALL_ATTEMPT_TIMEOUT)
+                        .apiCallTimeout(API_CALL_TIMEOUT)
+                        .addExecutionInterceptor(new DynamoDbMetricsInterceptor()));
+
+        // En Lambda la región viene del entorno. Las funciones restauradas de un snapshot de SnapStart reciben
+        // las credenciales por el endpoint del contenedor y no en variables de entorno: ese proveedor las
+        // resuelve y renueva después de la restauración. Sin ese endpoint se recorre la cadena por defecto
+        String region = System.getenv("AWS_REGION");
+        if (System.getenv("AWS_LAMBDA_FUNCTION_NAME") != null && region != null) {
+            builder.region(Region.of(region));
+        }
+        if (System.getenv("AWS_CONTAINER_CREDENTIALS_FULL_URI") != null) {
+            builder.credentialsProvider(ContainerCredentialsProvider.builder().build());
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.create());
+        }
+
+        // Endpoint alternativo, por ejemplo DynamoDB Local
+        String endpoint = System.getenv("DYNAMODB_ENDPOINT");
+        if (endpoint != null && !endpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+
+        DynamoDbAsyncClient client = builder.build();
+        RuntimeContext runtime = new RuntimeContext(ioExecutor, client, new DynamoDbUserRepository(client),
+                new DynamoDbTokenRepository(client), new DynamoDbEmployeeRepository(client));
+
+        // CRaC guarda referencias débiles: el contexto mantiene viva la instancia registrada
+        runtime.priming = new Priming(runtime);
+        Core.getGlobalContext().register(runtime.priming);
+
+        runtime.initDurationMillis = (System.nanoTime() - start) / 1_000_000;
+        return runtime;
+    }
+
+    /**
+     * Crea el pool acotado para E/S: con 1-2 vCPU el ForkJoinPool común tiene uno o ningún worker,
+     * así que se dimensiona por concurrencia esperada y no por cantidad de procesadores
+     * @return executor con hilos daemon y cola acotada
+     */
+    public static ExecutorService createIoExecutor() {
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(IO_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "employee-api-io-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Registra en los logs el tiempo de inicialización, solo en la primera invocación del contenedor
+     * @param logger logger de la invocación actual
+     * @return true si es la primera invocación (arranque en frío)
+     */
+    public boolean logColdStart(LambdaLogger logger) {
+        if (coldStartPending.compareAndSet(true, false)) {
+            logger.log("Cold start: runtime context initialized in " + initDurationMillis + " ms");
+            return true;
+        }
+        return false;
+    }
+
+    public ExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    public DynamoDbAsyncClient getDynamoDbClient() {
+        return dynamoDbClient;
+    }
+
+    public UserRepository getUserRepository() {
+        return userRepository;
+    }
+
+    public TokenRepository getTokenRepository() {
+        return tokenRepository;
+    }
+
+    public EmployeeRepository getEmployeeRepository() {
+        return employeeRepository;
+    }
+
+    public TokenVerifier getTokenVerifier() {
+        return tokenVerifier;
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    public long getInitDurationMillis() {
+        return initDurationMillis;
+    }
+
+    // Inicialización diferida y segura entre hilos (se carga al primer llamado a get())
+    private static class Holder {
+        private static final RuntimeContext INSTANCE = createDynamoDbContext();
+    }
+}
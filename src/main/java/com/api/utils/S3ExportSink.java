@@ -0,0 +1,71 @@
+package com.api.utils;
+
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionException;
+
+// Sube los archivos de la exportación a S3: cada uno se escribe primero en un archivo temporal
+// (ya comprimido ocupa poco) y se sube con una sola llamada al cerrarlo
+public class S3ExportSink implements ExportSink {
+
+    private final S3AsyncClient client;
+    private final String bucket;
+    private final String prefix;
+
+    /**
+     * @param client cliente de S3
+     * @param bucket bucket de destino
+     * @param prefix prefijo de las claves, por ejemplo "exports/employees/2024-01-31T03:00:00Z/"
+     */
+    public S3ExportSink(S3AsyncClient client, String bucket, String prefix) {
+        this.client = client;
+        this.bucket = bucket;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public OutputStream open(String name) throws IOException {
+        Path file = Files.createTempFile("employee-export-", ".part");
+        return new FilterOutputStream(Files.newOutputStream(file)) {
+            private boolean closed;
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                    PutObjectRequest request = PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(prefix + name)
+                            .contentType("application/gzip")
+                            .build();
+                    client.putObject(request, AsyncRequestBody.fromFile(file)).join();
+                } catch (CompletionException e) {
+                    throw new IOException("No se pudo subir " + describe(name), e.getCause());
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            }
+        };
+    }
+
+    @Override
+    public String describe(String name) {
+        return "s3://" + bucket + "/" + prefix + name;
+    }
+}
@@ -0,0 +1,268 @@
+package com.api.utils;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.api.models.Employee;
+import com.api.models.EmployeePatch;
+import com.api.models.Subtree;
+import com.api.repositories.ConcurrentUpdateException;
+import com.api.repositories.EmployeeNotFoundException;
+import com.api.repositories.EmployeeRepository;
+import com.api.repositories.EmployeeWriteResult;
+import com.api.repositories.InvalidHierarchyException;
+import com.api.repositories.SupervisorNotFoundException;
+import com.api.repositories.VersionMismatchException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Mantiene la ruta de ancestros guardada en cada empleado, para validar la jerarquía con una sola lectura
+public class SupervisorChain {
+
+    public static final int MAX_DEPTH = 50;
+    // Un cambio de supervisor reescribe la ruta de todos los descendientes dentro de la misma invocación:
+    // se rechazan los que moverían más empleados que esta cota
+    public static final int MAX_MOVE_SIZE = 1000;
+
+    private final EmployeeRepository employeeRepository;
+    private final OrgChartTraversal traversal;
+
+    public SupervisorChain(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+        this.traversal = new OrgChartTraversal(employeeRepository);
+    }
+
+    /**
+     * Calcula la ruta de ancestros de un empleado al asignarle un supervisor, leyendo solo al supervisor
+     * @param employeeId ID del empleado
+     * @param supervisorId ID del supervisor (null si no tiene)
+     * @return future con los IDs desde la raíz hasta el supervisor; completa con SupervisorNotFoundException
+     *         si el supervisor no existe, o InvalidHierarchyException si se formaría un ciclo o se excede la profundidad
+     */
+    public CompletableFuture<List<String>> resolveAncestors(String employeeId, String supervisorId) {
+        if (supervisorId == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return employeeRepository.findById(supervisorId).thenCompose(supervisor -> {
+            if (supervisor == null) {
+                throw new SupervisorNotFoundException(supervisorId);
+            }
+            return pathOf(supervisor).thenApply(supervisorPath -> extend(employeeId, supervisorPath, supervisorId));
+        });
+    }
+
+    /**
+     * Agrega el supervisor al final de su propia ruta, validando que el empleado no quede debajo de sí mismo
+     * @param employeeId ID del empleado
+     * @param supervisorPath ruta del supervisor
+     * @param supervisorId ID del supervisor
+     * @return ruta del empleado
+     */
+    public static List<String> extend(String employeeId, List<String> supervisorPath, String supervisorId) {
+        if (employeeId.equals(supervisorId) || supervisorPath.contains(employeeId)) {
+            throw new InvalidHierarchyException("La asignación crearía un ciclo en la jerarquía");
+        }
+        if (supervisorPath.size() + 1 > MAX_DEPTH) {
+            throw new InvalidHierarchyException("La jerarquía no puede superar los " + MAX_DEPTH + " niveles");
+        }
+        List<String> path = new ArrayList<>(supervisorPath.size() + 1);
+        path.addAll(supervisorPath);
+        path.add(supervisorId);
+        return path;
+    }
+
+    /**
+     * Obtiene la ruta guardada de un empleado. Los items anteriores a la ruta de ancestros no la tienen:
+     * en ese caso se recorre la cadena una única vez y se guarda, para que las siguientes escrituras no la recorran
+     * @param employee empleado leído
+     * @return future con los IDs desde la raíz hasta su supervisor directo
+     */
+    public CompletableFuture<List<String>> pathOf(Employee employee) {
+        if (employee.getAncestors() != null) {
+            return CompletableFuture.completedFuture(employee.getAncestors());
+        }
+        Set<String> seen = new HashSet<>();
+        seen.add(employee.getId());
+        return walk(employee, seen).thenCompose(path ->
+                employeeRepository.updateAncestors(Map.of(employee.getId(), path)).thenApply(ignored -> path));
+    }
+
+    private CompletableFuture<List<String>> walk(Employee employee, Set<String> seen) {
+        if (employee.getAncestors() != null) {
+            return CompletableFuture.completedFuture(employee.getAncestors());
+        }
+        String supervisorId = employee.getSupervisor_id();
+        if (supervisorId == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (!seen.add(supervisorId)) {
+            return CompletableFuture.failedFuture(new InvalidHierarchyException("La cadena de supervisores guardada ya contiene un ciclo"));
+        }
+        if (seen.size() > MAX_DEPTH) {
+            return CompletableFuture.failedFuture(new InvalidHierarchyException("La jerarquía no puede superar los " + MAX_DEPTH + " niveles"));
+        }
+        return employeeRepository.findById(supervisorId).thenCompose(supervisor -> {
+            // Un supervisor eliminado deja al empleado como raíz de su rama
+            if (supervisor == null) {
+                return CompletableFuture.completedFuture(List.<String>of());
+            }
+            return walk(supervisor, seen).thenApply(path -> {
+                List<String> extended = new ArrayList<>(path);
+                extended.add(supervisorId);
+                return extended;
+            });
+        });
+    }
+
+    /**
+     * Aplica el patch de un empleado. Si incluye supervisor, lee al empleado a la vez que al supervisor,
+     * completa la ruta de ancestros del patch y escribe en un único intento condicionado a la versión leída.
+     * Solo si el supervisor cambia valida el movimiento con checkMove y actualiza la ruta de los descendientes
+     * @param patch campos a escribir, con la versión esperada por el cliente si la indicó
+     * @param logger destino del aviso si la ruta de los descendientes no pudo actualizarse
+     * @return future con la nueva versión del empleado (null si no se conoce); completa con
+     *         SupervisorNotFoundException o InvalidHierarchyException si el supervisor no es válido,
+     *         EmployeeNotFoundException, VersionMismatchException o ConcurrentUpdateException si la escritura no pudo aplicarse
+     */
+    public CompletableFuture<Long> patch(EmployeePatch patch, LambdaLogger logger) {
+        if (!patch.isSupervisorPresent()) {
+            return employeeRepository.patch(patch).thenApply(EmployeeWriteResult::getVersion);
+        }
+
+        Long requestedVersion = patch.getExpectedVersion();
+        boolean versionRequested = requestedVersion != null && requestedVersion != EmployeePatch.ANY_VERSION;
+        CompletableFuture<Employee> stored = employeeRepository.findById(patch.getId());
+        return resolveAncestors(patch.getId(), patch.getSupervisor_id()).thenCombine(stored, (ancestors, employee) -> {
+            if (employee == null) {
+                throw new EmployeeNotFoundException(patch.getId());
+            }
+            if (versionRequested && requestedVersion != employee.getVersion()) {
+                throw new VersionMismatchException(patch.getId(), requestedVersion);
+            }
+            patch.setAncestors(ancestors);
+            patch.setStored(employee);
+            return employee;
+        }).thenCompose(employee -> {
+            // Sin cambio de supervisor no hay subárbol que validar ni rutas que reescribir
+            if (Objects.equals(employee.getSupervisor_id(), patch.getSupervisor_id())) {
+                return write(patch, null, logger);
+            }
+            return checkMove(employee, patch.getSupervisor_id(), patch.getAncestors())
+                    .thenCompose(subtree -> write(patch, subtree, logger));
+        }).exceptionallyCompose(error -> {
+            // El cliente no pidió una versión: que la leída ya no sea la guardada es una escritura concurrente
+            Throwable cause = Futures.unwrap(error);
+            if (cause instanceof VersionMismatchException && !versionRequested) {
+                return CompletableFuture.failedFuture(new ConcurrentUpdateException(
+                        "El empleado " + patch.getId() + " cambió después de leerlo", cause));
+            }
+            return CompletableFuture.failedFuture(cause);
+        });
+    }
+
+    /**
+     * Recorre el subárbol real de un empleado (por supervisor_id, sin confiar en las rutas guardadas) y valida
+     * que pueda pasar al supervisor indicado: rechaza ciclos, descendientes que superarían la profundidad máxima
+     * y subárboles de más de MAX_MOVE_SIZE empleados
+     * @param employee empleado leído
+     * @param supervisorId nuevo supervisor (null si queda sin supervisor)
+     * @param ancestors nueva ruta del empleado
+     * @return future con los descendientes recorridos; completa con InvalidHierarchyException si el cambio no es válido
+     */
+    public CompletableFuture<Subtree> checkMove(Employee employee, String supervisorId, List<String> ancestors) {
+        // Un nivel más que el permitido, para detectar los subárboles demasiado profundos
+        int maxLevels = MAX_DEPTH - ancestors.size();
+        return traversal.traverse(employee, maxLevels + 1, MAX_MOVE_SIZE, true).thenApply(subtree -> {
+            validateMove(supervisorId, subtree, maxLevels);
+            return subtree;
+        });
+    }
+
+    /**
+     * Escribe el patch y, si cambió el supervisor, la ruta de los descendientes
+     * @param patch campos a escribir
+     * @param subtree descendientes recorridos antes de escribir (null si el supervisor no cambia)
+     * @param logger destino del aviso si la ruta de los descendientes no pudo actualizarse
+     * @return future con la nueva versión del empleado
+     */
+    private CompletableFuture<Long> write(EmployeePatch patch, Subtree subtree, LambdaLogger logger) {
+        return employeeRepository.patch(patch).thenCompose(result -> {
+            // La escritura está condicionada a la versión leída: el supervisor no pudo cambiar en el medio
+            if (subtree == null || !result.isSupervisorChanged()) {
+                return CompletableFuture.completedFuture(result.getVersion());
+            }
+            // El cambio ya quedó guardado: si falla la actualización de las rutas no se informa como error
+            return propagate(patch.getId(), patch.getAncestors(), subtree).handle((ignored, error) -> {
+                if (error != null) {
+                    logger.log("Error: no se pudo actualizar la ruta de los descendientes de " + patch.getId()
+                            + ": " + Futures.unwrap(error).getMessage());
+                }
+                return result.getVersion();
+            });
+        });
+    }
+
+    /**
+     * Valida el cambio de supervisor contra el subárbol actual del empleado
+     * @param supervisorId nuevo supervisor
+     * @param subtree descendientes del empleado
+     * @param maxLevels cantidad de niveles que pueden quedar debajo del empleado
+     */
+    private static void validateMove(String supervisorId, Subtree subtree, int maxLevels) {
+        if (!subtree.getCycles().isEmpty()) {
+            throw new InvalidHierarchyException("La cadena de supervisores guardada ya contiene un ciclo");
+        }
+        if (supervisorId != null && subtree.getDepthById().containsKey(supervisorId)) {
+            throw new InvalidHierarchyException("La asignación crearía un ciclo en la jerarquía");
+        }
+        if (subtree.getLevelCounts().size() > maxLevels) {
+            throw new InvalidHierarchyException("La jerarquía no puede superar los " + MAX_DEPTH + " niveles");
+        }
+        if (subtree.isTruncated()) {
+            throw new InvalidHierarchyException("No se puede cambiar el supervisor de un empleado con más de "
+                    + MAX_MOVE_SIZE + " subordinados");
+        }
+    }
+
+    /**
+     * Actualiza la ruta guardada de todos los descendientes de un empleado que cambió de supervisor.
+     * No es atómico con la escritura del empleado: se ejecuta después, con un recorrido por niveles
+     * @param employeeId ID del empleado movido
+     * @param ancestors su nueva ruta
+     * @return future que completa cuando se escribieron las rutas de los descendientes
+     */
+    public CompletableFuture<Void> propagate(String employeeId, List<String> ancestors) {
+        return traversal.traverse(employeeId, MAX_DEPTH, MAX_MOVE_SIZE, true).thenCompose(subtree ->
+                subtree == null ? CompletableFuture.completedFuture(null) : propagate(employeeId, ancestors, subtree));
+    }
+
+    /**
+     * Escribe la ruta de cada descendiente a partir de la del empleado movido
+     * @param employeeId ID del empleado movido
+     * @param ancestors su nueva ruta
+     * @param subtree sus descendientes
+     * @return future que completa cuando se escribieron las rutas
+     */
+    private CompletableFuture<Void> propagate(String employeeId, List<String> ancestors, Subtree subtree) {
+        if (subtree.getParentById().isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // depthById está en orden de nivel: la ruta del supervisor siempre se calcula antes
+        Map<String, List<String>> ancestorsById = new HashMap<>();
+        for (String id : subtree.getDepthById().keySet()) {
+            String parentId = subtree.getParentById().get(id);
+            List<String> parentPath = parentId.equals(employeeId) ? ancestors : ancestorsById.get(parentId);
+            List<String> path = new ArrayList<>(parentPath.size() + 1);
+            path.addAll(parentPath);
+            path.add(parentId);
+            ancestorsById.put(id, path);
+        }
+        return employeeRepository.updateAncestors(ancestorsById);
+    }
+}
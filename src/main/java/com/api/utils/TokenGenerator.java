@@ -18,6 +18,17 @@ public class TokenGenerator {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
     }
 
+    /**
+     * Genera un token firmado y autocontenido, verificable sin consultar la tabla Tokens
+     * @param userId ID del usuario
+     * @param username nombre de usuario
+     * @param expiresAt timestamp de expiración en segundos desde epoch
+     * @return String token
+     */
+    public static String generateSignedToken(String userId, String username, long expiresAt) {
+        return TokenSigner.sign(userId, username, expiresAt);
+    }
+
     /**
      * Calcula el timestamp de expiración basado en los minutos especificados
      * @param minutes minutos hasta la expiración
@@ -0,0 +1,152 @@
+package com.api.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TokenSigner {
+
+    private static final String VERSION = "v1";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Gson gson = new Gson();
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    // Claves de firma cargadas una única vez por contenedor; la primera es la activa
+    private static final Map<String, SecretKeySpec> keys = loadKeys(System.getenv("TOKEN_SIGNING_KEYS"));
+    private static final String activeKeyId = keys.isEmpty() ? null : keys.keySet().iterator().next();
+    private static final boolean signedMode = "signed".equalsIgnoreCase(System.getenv("TOKEN_MODE"));
+
+    static {
+        if (signedMode && activeKeyId == null) {
+            throw new IllegalStateException("TOKEN_MODE=signed requiere definir TOKEN_SIGNING_KEYS");
+        }
+    }
+
+    /**
+     * Indica si los nuevos tokens deben emitirse firmados en lugar de guardarse en la tabla Tokens
+     * @return true si TOKEN_MODE=signed
+     */
+    public static boolean isSignedMode() {
+        return signedMode;
+    }
+
+    /**
+     * Indica si el token tiene el formato de un token firmado
+     * @param token el token a inspeccionar
+     * @return true si el token es autocontenido
+     */
+    public static boolean isSignedToken(String token) {
+        return token.startsWith(VERSION + ".");
+    }
+
+    /**
+     * Firma un token autocontenido con la clave activa
+     * @param userId ID del usuario
+     * @param username nombre de usuario
+     * @param expiresAt timestamp de expiración en segundos desde epoch
+     * @return token con formato v1.kid.payload.firma
+     */
+    public static String sign(String userId, String username, long expiresAt) {
+        if (activeKeyId == null) {
+            throw new IllegalStateException("No hay claves de firma configuradas en TOKEN_SIGNING_KEYS");
+        }
+
+        JsonObject payload = new JsonObject();
+        payload.addProperty("userId", userId);
+        payload.addProperty("username", username);
+        payload.addProperty("expiresAt", expiresAt);
+
+        String signingInput = VERSION + "." + activeKeyId + "."
+                + encoder.encodeToString(gson.toJson(payload).getBytes(StandardCharsets.UTF_8));
+        return signingInput + "." + encoder.encodeToString(hmac(keys.get(activeKeyId), signingInput));
+    }
+
+    /**
+     * Verifica un token autocontenido sin acceder a DynamoDB
+     * @param token el token a verificar
+     * @return un Map con el mismo formato que TokenVerifier.verifyToken
+     */
+    public static Map<String, Object> verify(String token) {
+        Map<String, Object> result = new HashMap<>();
+
+        String[] parts = token.split("\\.");
+        SecretKeySpec key = parts.length == 4 ? keys.get(parts[1]) : null;
+        if (key == null) {
+            result.put("isValid", false);
+            result.put("message", "Token inválido");
+            return result;
+        }
+
+        try {
+            String signingInput = parts[0] + "." + parts[1] + "." + parts[2];
+            byte[] signature = decoder.decode(parts[3]);
+            if (!MessageDigest.isEqual(signature, hmac(key, signingInput))) {
+                result.put("isValid", false);
+                result.put("message", "Token inválido");
+                return result;
+            }
+
+            JsonObject payload = gson.fromJson(new String(decoder.decode(parts[2]), StandardCharsets.UTF_8), JsonObject.class);
+            long expiresAt = payload.get("expiresAt").getAsLong();
+            if (expiresAt < Instant.now().getEpochSecond()) {
+                result.put("isValid", false);
+                result.put("message", "Token expirado");
+                return result;
+            }
+
+            result.put("isValid", true);
+            result.put("userId", payload.get("userId").getAsString());
+            result.put("username", payload.get("username").getAsString());
+            return result;
+
+        } catch (RuntimeException e) {
+            result.put("isValid", false);
+            result.put("message", "Token inválido");
+            return result;
+        }
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String input) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(input.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular la firma del token", e);
+        }
+    }
+
+    /**
+     * Carga el conjunto de claves con formato "kid1:secretoBase64,kid2:secretoBase64"
+     * @param spec valor de la variable de entorno TOKEN_SIGNING_KEYS
+     * @return claves por identificador, en el orden declarado
+     */
+    private static Map<String, SecretKeySpec> loadKeys(String spec) {
+        Map<String, SecretKeySpec> loaded = new LinkedHashMap<>();
+        if (spec == null || spec.trim().isEmpty()) {
+            return loaded;
+        }
+
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split(":", 2);
+            if (pair.length != 2 || pair[0].isEmpty() || pair[0].contains(".")) {
+                throw new IllegalStateException("Entrada inválida en TOKEN_SIGNING_KEYS: " + pair[0]);
+            }
+            loaded.put(pair[0], new SecretKeySpec(Base64.getDecoder().decode(pair[1]), ALGORITHM));
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+}
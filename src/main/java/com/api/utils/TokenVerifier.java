@@ -1,71 +1,195 @@
 package com.api.utils;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
-import com.amazonaws.services.dynamodbv2.document.Item;
-import com.amazonaws.services.dynamodbv2.document.Table;
-import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.api.models.Token;
+import com.api.repositories.TokenRepository;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TokenVerifier {
 
-    private static final AmazonDynamoDB dynamoDBClient = AmazonDynamoDBClientBuilder.standard().build();
-    private static final DynamoDB dynamoDB = new DynamoDB(dynamoDBClient);
+    private static final int CACHE_MAX_ENTRIES = readIntEnv("TOKEN_CACHE_MAX_ENTRIES", 10000);
+    private static final int NEGATIVE_MAX_ENTRIES = readIntEnv("TOKEN_CACHE_NEGATIVE_MAX_ENTRIES", 1000);
+    private static final long NEGATIVE_TTL_MILLIS = readIntEnv("TOKEN_CACHE_NEGATIVE_TTL_SECONDS", 30) * 1000L;
+
+    private final TokenRepository tokenRepository;
+
+    // Caché en memoria de verificaciones, compartida entre invocaciones del mismo contenedor
+    private final Map<String, CachedVerification> cache = new ConcurrentHashMap<>();
+    // Los rechazos van en una caché aparte y más chica: una ráfaga de tokens inventados no desplaza a los válidos
+    private final Map<String, CachedVerification> rejected = new ConcurrentHashMap<>();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    public TokenVerifier(TokenRepository tokenRepository) {
+        this.tokenRepository = tokenRepository;
+    }
 
     /**
      * Verifica si un token es válido
      * @param token el token a verificar
-     * @return un Map con el resultado de la verificación
+     * @return future con un Map con el resultado de la verificación
      */
-    public static Map<String, Object> verifyToken(String token) {
-        Map<String, Object> result = new HashMap<>();
-
+    public CompletableFuture<Map<String, Object>> verifyToken(String token) {
         if (token == null || token.trim().isEmpty()) {
+            Map<String, Object> result = new HashMap<>();
             result.put("isValid", false);
             result.put("message", "Token no proporcionado");
-            return result;
+            return CompletableFuture.completedFuture(result);
         }
 
-        try {
-            // Buscar el token en DynamoDB
-            Table tokensTable = dynamoDB.getTable("Tokens");
-            GetItemSpec spec = new GetItemSpec()
-                    .withPrimaryKey("token", token);
-
-            Item tokenItem = tokensTable.getItem(spec);
-
-            // Si el token no existe
-            if (tokenItem == null) {
-                result.put("isValid", false);
-                result.put("message", "Token inválido");
-                return result;
-            }
-
-            // Verificar si el token ha expirado
-            long expiresAt = tokenItem.getNumber("expiresAt").longValue();
-            long currentTime = Instant.now().getEpochSecond();
-
-            if (expiresAt < currentTime) {
-                result.put("isValid", false);
-                result.put("message", "Token expirado");
-                return result;
-            }
-
-            // Token válido, devolver información del usuario
-            result.put("isValid", true);
-            result.put("userId", tokenItem.getString("userId"));
-            result.put("username", tokenItem.getString("username"));
+        // Los tokens firmados se validan en CPU, sin caché ni acceso a DynamoDB
+        if (TokenSigner.isSignedToken(token)) {
+            return CompletableFuture.completedFuture(TokenSigner.verify(token));
+        }
+
+        long now = System.currentTimeMillis();
+        Map<String, Object> cached = lookup(cache, token, now);
+        if (cached == null) {
+            cached = lookup(rejected, token, now);
+        }
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+        cacheMisses.incrementAndGet();
+
+        // Buscar el token en DynamoDB
+        return tokenRepository.findByToken(token)
+                .thenApply(storedToken -> toResult(token, storedToken, now))
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("isValid", false);
+                    result.put("message", "Error al verificar token: " + cause.getMessage());
+                    return result;
+                });
+    }
 
+    /**
+     * Cantidad de verificaciones resueltas desde la caché
+     * @return aciertos de caché desde el inicio del contenedor
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Cantidad de verificaciones que requirieron una lectura en DynamoDB
+     * @return fallos de caché desde el inicio del contenedor
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    private Map<String, Object> toResult(String token, Token storedToken, long now) {
+        Map<String, Object> result = new HashMap<>();
+
+        // Si el token no existe
+        if (storedToken == null) {
+            result.put("isValid", false);
+            result.put("message", "Token inválido");
+            store(rejected, NEGATIVE_MAX_ENTRIES, token, result, now + NEGATIVE_TTL_MILLIS);
             return result;
+        }
+
+        // Verificar si el token ha expirado
+        long expiresAt = storedToken.getExpiresAt();
+        long currentTime = Instant.now().getEpochSecond();
 
-        } catch (Exception e) {
+        if (expiresAt < currentTime) {
             result.put("isValid", false);
-            result.put("message", "Error al verificar token: " + e.getMessage());
+            result.put("message", "Token expirado");
+            store(rejected, NEGATIVE_MAX_ENTRIES, token, result, now + NEGATIVE_TTL_MILLIS);
             return result;
         }
+
+        // Token válido, devolver información del usuario
+        result.put("isValid", true);
+        result.put("userId", storedToken.getUserId());
+        result.put("username", storedToken.getUsername());
+        store(cache, CACHE_MAX_ENTRIES, token, result, (expiresAt + 1) * 1000L);
+
+        return result;
+    }
+
+    /**
+     * Busca un resultado vigente en una de las cachés, descartándolo si ya venció
+     * @param entries caché donde buscar
+     * @param token el token a verificar
+     * @param now instante actual en milisegundos
+     * @return copia del resultado, o null si no hay uno vigente
+     */
+    private static Map<String, Object> lookup(Map<String, CachedVerification> entries, String token, long now) {
+        CachedVerification cached = entries.get(token);
+        if (cached == null) {
+            return null;
+        }
+        if (now >= cached.validUntilMillis) {
+            entries.remove(token, cached);
+            return null;
+        }
+        return new HashMap<>(cached.result);
+    }
+
+    /**
+     * Guarda una copia del resultado en una de las cachés, liberando espacio si se alcanzó su límite
+     * @param entries caché donde guardar
+     * @param maxEntries capacidad de esa caché
+     * @param token el token verificado
+     * @param result resultado de la verificación
+     * @param validUntilMillis instante hasta el cual el resultado puede reutilizarse
+     */
+    private static void store(Map<String, CachedVerification> entries, int maxEntries, String token,
+                              Map<String, Object> result, long validUntilMillis) {
+        if (entries.size() >= maxEntries) {
+            evict(entries, maxEntries, System.currentTimeMillis());
+        }
+        entries.put(token, new CachedVerification(Collections.unmodifiableMap(new HashMap<>(result)), validUntilMillis));
+    }
+
+    /**
+     * Elimina las entradas vencidas y, si la caché sigue llena, descarta entradas hasta bajar al 90% de su capacidad
+     * @param entries caché a recortar
+     * @param maxEntries capacidad de esa caché
+     * @param now instante actual en milisegundos
+     */
+    private static void evict(Map<String, CachedVerification> entries, int maxEntries, long now) {
+        entries.values().removeIf(entry -> now >= entry.validUntilMillis);
+
+        int target = maxEntries * 9 / 10;
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static int readIntEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static final class CachedVerification {
+        private final Map<String, Object> result;
+        private final long validUntilMillis;
+
+        private CachedVerification(Map<String, Object> result, long validUntilMillis) {
+            this.result = result;
+            this.validUntilMillis = validUntilMillis;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.api.handlers;
+
+import com.api.models.EmployeeFields;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BatchCreateUpdateEmployeesHandlerTest extends HandlerTestSupport {
+
+    private BatchCreateUpdateEmployeesHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new BatchCreateUpdateEmployeesHandler(runtime);
+    }
+
+    @Test
+    void writesSupervisorsBeforeTheirReports() {
+        String oldBoss = create("jefa", null);
+        String id = create("ana", oldBoss);
+
+        // El existente aparece antes que el supervisor nuevo del que pasa a depender
+        JsonArray results = save(
+                item(id, "ana", "nuevo"),
+                item("nuevo", "nuevo", oldBoss),
+                item("debajo", "debajo", id));
+
+        assertEquals(List.of(200, 201, 201), statuses(results));
+        assertEquals(1, stored(oldBoss).getDirectReportsCount());
+        assertEquals(1, stored("nuevo").getDirectReportsCount());
+        assertEquals(1, stored(id).getDirectReportsCount());
+        assertEquals(List.of(oldBoss, "nuevo"), stored(id).getAncestors());
+        assertEquals(List.of(oldBoss, "nuevo", id), stored("debajo").getAncestors());
+    }
+
+    @Test
+    void emailChangesOfExistingEmployeesReleaseTheOldEmail() {
+        String id = create("ana", null);
+
+        JsonObject changed = item(id, "ana", null);
+        changed.addProperty("email", "ana.p@example.com");
+        assertEquals(List.of(200), statuses(save(changed)));
+
+        assertEquals(id, employeeRepository.findByEmail("ana.p@example.com", EmployeeFields.ALL).join().getId());
+        create("ana", null);
+    }
+
+    @Test
+    void failuresAreReportedPerItem() {
+        String first = create("ana", null);
+        create("beto", null);
+
+        JsonObject taken = item(first, "ana", null);
+        taken.addProperty("email", "beto@example.com");
+        JsonArray results = save(taken, item("carla", "carla", first), item("dario", "dario", "nadie"));
+
+        assertEquals(List.of(409, 201, 400), statuses(results));
+        assertEquals("ana@example.com", stored(first).getEmail());
+        assertEquals(1, stored(first).getDirectReportsCount());
+    }
+
+    @Test
+    void reportsOfAFailedItemFailToo() {
+        create("ana", null);
+
+        JsonObject taken = item("jefa", "jefa", null);
+        taken.addProperty("email", "ana@example.com");
+
+        assertEquals(List.of(409, 400), statuses(save(taken, item("beto", "beto", "jefa"))));
+    }
+
+    @Test
+    void rejectsCyclesWithinTheBatch() {
+        assertEquals(List.of(400, 400), statuses(save(item("p", "p", "q"), item("q", "q", "p"))));
+    }
+
+    @Test
+    void rejectsMovesUnderADescendantEvenWithStalePaths() {
+        String boss = create("jefa", null);
+        String middle = create("ana", boss);
+        String leaf = create("beto", middle);
+        // La ruta guardada de la hoja no refleja que está debajo de la jefa
+        employeeRepository.updateAncestors(Map.of(leaf, List.of())).join();
+
+        JsonArray results = save(item(boss, "jefa", leaf));
+
+        assertEquals(List.of(400), statuses(results));
+        assertEquals(0, stored(leaf).getDirectReportsCount());
+        assertNull(stored(boss).getSupervisor_id());
+    }
+
+    private JsonArray save(JsonObject... items) {
+        JsonArray batch = new JsonArray();
+        for (JsonObject item : items) {
+            batch.add(item);
+        }
+        return body(handler.handleRequest(request(batch.toString(), null), CONTEXT)).getAsJsonArray("results");
+    }
+
+    private static JsonObject item(String id, String name, String supervisorId) {
+        JsonObject item = new JsonObject();
+        item.addProperty("id", id);
+        item.addProperty("nombre", name);
+        item.addProperty("email", name + "@example.com");
+        item.addProperty("supervisor_id", supervisorId);
+        return item;
+    }
+
+    private static List<Integer> statuses(JsonArray results) {
+        List<Integer> statuses = new ArrayList<>();
+        results.forEach(result -> statuses.add(result.getAsJsonObject().get("status").getAsInt()));
+        return statuses;
+    }
+}
@@ -0,0 +1,140 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.models.Employee;
+import com.api.models.EmployeeFields;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CreateUpdateEmployeeHandlerTest extends HandlerTestSupport {
+
+    private CreateUpdateEmployeeHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new CreateUpdateEmployeeHandler(runtime);
+    }
+
+    @Test
+    void createCountsTheReportAndBumpsTheSupervisorVersion() {
+        String boss = create("jefa", null);
+        String report = create("ana", boss);
+
+        Employee supervisor = stored(boss);
+        assertEquals(1, supervisor.getDirectReportsCount());
+        assertEquals(2L, supervisor.getVersion());
+        assertEquals(List.of(boss), stored(report).getAncestors());
+        assertEquals(1L, stored(report).getVersion());
+    }
+
+    @Test
+    void reportsUnderLegacySupervisorsCountTheExistingOnes() {
+        saveLegacy(null, "jefa", "otra");
+        saveLegacy("jefa", "ana", "luis");
+
+        create("eva", "jefa");
+        handler.handleRequest(request(employee("ana", "ana", "ana@example.com", "otra"), null), CONTEXT);
+
+        assertEquals(2, stored("jefa").getDirectReportsCount());
+        assertEquals(1, stored("otra").getDirectReportsCount());
+    }
+
+    @Test
+    void createRejectsUnknownSupervisors() {
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(employee(null, "ana", "ana@example.com", "nadie"), null), CONTEXT);
+
+        assertEquals(400, response.getStatusCode());
+        assertEquals("El supervisor_id proporcionado no existe", message(response));
+    }
+
+    @Test
+    void updateRequiresAnExistingEmployee() {
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(employee("nadie", "ana", "ana@example.com", null), null), CONTEXT);
+
+        assertEquals(404, response.getStatusCode());
+    }
+
+    @Test
+    void updateHonorsIfMatch() {
+        String id = create("ana", null);
+
+        APIGatewayProxyResponseEvent stale = handler.handleRequest(
+                request(employee(id, "Ana", "ana@example.com", null), null, "If-Match", "\"7\""), CONTEXT);
+        APIGatewayProxyResponseEvent current = handler.handleRequest(
+                request(employee(id, "Ana", "ana@example.com", null), null, "If-Match", "\"1\""), CONTEXT);
+
+        assertEquals(412, stale.getStatusCode());
+        assertEquals(200, current.getStatusCode());
+        assertEquals("\"2\"", current.getHeaders().get("ETag"));
+        assertEquals("Ana", stored(id).getNombre());
+    }
+
+    @Test
+    void updateMovesTheReportCounters() {
+        String first = create("uno", null);
+        String second = create("dos", null);
+        String id = create("ana", first);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(employee(id, "ana", "ana@example.com", second), null), CONTEXT);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(0, stored(first).getDirectReportsCount());
+        assertEquals(1, stored(second).getDirectReportsCount());
+        assertEquals(List.of(second), stored(id).getAncestors());
+    }
+
+    @Test
+    void updateRejectsCycles() {
+        String boss = create("jefa", null);
+        String report = create("ana", boss);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(employee(boss, "jefa", "jefa@example.com", report), null), CONTEXT);
+
+        assertEquals(400, response.getStatusCode());
+        assertEquals("La asignación crearía un ciclo en la jerarquía", message(response));
+        assertNull(stored(boss).getSupervisor_id());
+    }
+
+    @Test
+    void emailsAreUniqueAndReleasedWhenChanged() {
+        String id = create("ana", null);
+
+        APIGatewayProxyResponseEvent duplicate = handler.handleRequest(request(employee(null, "otra", "ANA@example.com", null), null), CONTEXT);
+        handler.handleRequest(request(employee(id, "ana", "ana.p@example.com", null), null), CONTEXT);
+        APIGatewayProxyResponseEvent reused = handler.handleRequest(request(employee(null, "otra", "ana@example.com", null), null), CONTEXT);
+
+        assertEquals(409, duplicate.getStatusCode());
+        assertEquals(201, reused.getStatusCode());
+        assertEquals(409, handler.handleRequest(request(employee(null, "otra", "ana.p@example.com", null), null), CONTEXT).getStatusCode());
+    }
+
+    @Test
+    void savingALegacyEmployeeReservesItsEmail() {
+        String id = create("ana", null);
+        // Un empleado guardado antes de la tabla de emails no tiene reserva
+        employeeRepository.releaseEmails(Map.of("ana@example.com", id)).join();
+        assertNull(employeeRepository.findByEmail("ana@example.com", EmployeeFields.ALL).join());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(employee(id, "Ana", "ana@example.com", null), null), CONTEXT);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(id, employeeRepository.findByEmail("ana@example.com", EmployeeFields.ALL).join().getId());
+        assertEquals(409, handler.handleRequest(request(employee(null, "otra", "ANA@example.com", null), null), CONTEXT).getStatusCode());
+    }
+
+    private static String employee(String id, String name, String email, String supervisorId) {
+        JsonObject employee = new JsonObject();
+        employee.addProperty("id", id);
+        employee.addProperty("nombre", name);
+        employee.addProperty("email", email);
+        employee.addProperty("supervisor_id", supervisorId);
+        return employee.toString();
+    }
+}
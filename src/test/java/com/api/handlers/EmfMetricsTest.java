@@ -0,0 +1,135 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.repositories.DynamoDbEmployeeRepository;
+import com.api.utils.DynamoDbMetricsInterceptor;
+import com.api.utils.Metrics;
+import com.api.utils.RuntimeContext;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Verifica la línea EMF que escribe una invocación: el cliente de DynamoDB es el real, con su interceptor,
+// y solo la respuesta HTTP está fijada, con la capacidad consumida que informaría DynamoDB
+class EmfMetricsTest extends HandlerTestSupport {
+
+    private static final String GET_ITEM_RESPONSE = "{\"Item\":{"
+            + "\"id\":{\"S\":\"ana\"},\"nombre\":{\"S\":\"ana\"},\"email\":{\"S\":\"ana@example.com\"},"
+            + "\"lastUpdated\":{\"S\":\"2024-01-01T00:00:00Z\"},\"directReportsCount\":{\"N\":\"0\"},\"version\":{\"N\":\"3\"}},"
+            + "\"ConsumedCapacity\":{\"TableName\":\"Employees\",\"CapacityUnits\":0.5}}";
+
+    private final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+    private DynamoDbAsyncClient client;
+
+    @BeforeEach
+    void captureMetrics() {
+        Metrics.setOutput(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+        Metrics.setEnabled(true);
+        client = DynamoDbAsyncClient.builder()
+                .httpClient(new CannedHttpClient(GET_ITEM_RESPONSE))
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create("http://localhost:8000"))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .overrideConfiguration(config -> config.addExecutionInterceptor(new DynamoDbMetricsInterceptor()))
+                .build();
+    }
+
+    @AfterEach
+    void restoreMetrics() {
+        client.close();
+        Metrics.setEnabled(false);
+        Metrics.setOutput(System.out);
+    }
+
+    @Test
+    void getByIdWritesTheStagesAndTheConsumedCapacity() {
+        // Los usuarios y tokens siguen en memoria para reutilizar el token del login
+        RuntimeContext dynamoDb = new RuntimeContext(RuntimeContext.createIoExecutor(), client,
+                runtime.getUserRepository(), runtime.getTokenRepository(), new DynamoDbEmployeeRepository(client));
+        stdout.reset();
+
+        APIGatewayProxyResponseEvent response = new GetEmployeeByIdHandler(dynamoDb).handleRequest(request(null, "ana"), CONTEXT);
+
+        assertEquals(200, response.getStatusCode());
+        String[] lines = stdout.toString(StandardCharsets.UTF_8).trim().split("\n");
+        assertEquals(1, lines.length);
+        JsonObject emf = JsonParser.parseString(lines[0]).getAsJsonObject();
+
+        JsonObject declaration = emf.getAsJsonObject("_aws").getAsJsonArray("CloudWatchMetrics").get(0).getAsJsonObject();
+        assertEquals("EmployeeApi", declaration.get("Namespace").getAsString());
+        assertEquals("Handler", declaration.getAsJsonArray("Dimensions").get(0).getAsJsonArray().get(0).getAsString());
+        assertEquals("GetEmployeeById", emf.get("Handler").getAsString());
+        assertTrue(emf.getAsJsonObject("_aws").get("Timestamp").getAsLong() > 0);
+
+        // Toda métrica declarada tiene su valor en el primer nivel
+        Set<String> declared = new HashSet<>();
+        JsonArray metrics = declaration.getAsJsonArray("Metrics");
+        for (JsonElement metric : metrics) {
+            String name = metric.getAsJsonObject().get("Name").getAsString();
+            declared.add(name);
+            assertTrue(emf.has(name), name);
+        }
+
+        for (String stage : new String[] {"Latency", "AuthTime", "DynamoDBGetItemTime", "SerializationTime", "DynamoDBTime"}) {
+            assertTrue(declared.contains(stage), stage);
+            assertTrue(emf.get(stage).getAsDouble() >= 0, stage);
+        }
+        assertTrue(emf.get("Latency").getAsDouble() >= emf.get("DynamoDBGetItemTime").getAsDouble());
+        assertEquals(emf.get("DynamoDBGetItemTime").getAsDouble(), emf.get("DynamoDBTime").getAsDouble());
+
+        assertEquals(0.5, emf.get("ConsumedReadCapacity").getAsDouble());
+        assertEquals(0.0, emf.get("ConsumedWriteCapacity").getAsDouble());
+        assertEquals(1, emf.get("DynamoDBCalls").getAsInt());
+        assertEquals(1, emf.get("ItemsReturned").getAsInt());
+        assertEquals(1, emf.getAsJsonObject("dynamoDbCalls").get("GetItem").getAsInt());
+        assertEquals(200, emf.get("statusCode").getAsInt());
+    }
+
+    // Responde a toda solicitud con el mismo cuerpo JSON, sin abrir conexiones
+    private static final class CannedHttpClient implements SdkAsyncHttpClient {
+
+        private final byte[] body;
+
+        private CannedHttpClient(String body) {
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public CompletableFuture<Void> execute(AsyncExecuteRequest request) {
+            request.responseHandler().onHeaders(SdkHttpResponse.builder()
+                    .statusCode(200)
+                    .putHeader("Content-Type", "application/x-amz-json-1.0")
+                    .putHeader("Content-Length", Integer.toString(body.length))
+                    .build());
+            request.responseHandler().onStream(AsyncRequestBody.fromBytes(body));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
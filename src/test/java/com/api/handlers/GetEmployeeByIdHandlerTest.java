@@ -0,0 +1,78 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GetEmployeeByIdHandlerTest extends HandlerTestSupport {
+
+    private GetEmployeeByIdHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new GetEmployeeByIdHandler(runtime);
+    }
+
+    @Test
+    void answersNotModifiedForTheCurrentETag() {
+        String id = create("jefa", null);
+        String etag = handler.handleRequest(request(null, id), CONTEXT).getHeaders().get("ETag");
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(null, id, "If-None-Match", etag), CONTEXT);
+
+        assertEquals(304, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(etag, response.getHeaders().get("ETag"));
+    }
+
+    @Test
+    void reportCounterChangesInvalidateTheETag() {
+        String id = create("jefa", null);
+        String etag = handler.handleRequest(request(null, id), CONTEXT).getHeaders().get("ETag");
+        create("ana", id);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(null, id, "If-None-Match", etag), CONTEXT);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(1, body(response).getAsJsonObject("employee").get("directReportsCount").getAsInt());
+    }
+
+    @Test
+    void countsTheReportsOfLegacySupervisors() {
+        saveLegacy(null, "jefa");
+        saveLegacy("jefa", "ana", "luis");
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(null, "jefa"), CONTEXT);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(2, body(response).getAsJsonObject("employee").get("directReportsCount").getAsInt());
+        assertEquals(2, stored("jefa").getDirectReportsCount());
+    }
+
+    @Test
+    void includesAncestorsOnlyWhenRequested() {
+        String boss = create("jefa", null);
+        String id = create("ana", boss);
+
+        JsonObject byDefault = body(handler.handleRequest(request(null, id), CONTEXT)).getAsJsonObject("employee");
+        JsonObject requested = body(handler.handleRequest(
+                request(null, id).withQueryStringParameters(Map.of("fields", "id,ancestors")), CONTEXT)).getAsJsonObject("employee");
+
+        assertFalse(byDefault.has("ancestors"));
+        assertTrue(requested.has("ancestors"));
+        assertEquals(boss, requested.getAsJsonArray("ancestors").get(0).getAsString());
+    }
+
+    @Test
+    void answersNotFoundForUnknownIds() {
+        assertEquals(404, handler.handleRequest(request(null, "nadie"), CONTEXT).getStatusCode());
+    }
+}
@@ -0,0 +1,118 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.models.Employee;
+import com.api.models.User;
+import com.api.repositories.EmployeeRepository;
+import com.api.repositories.InMemoryUserRepository;
+import com.api.utils.Metrics;
+import com.api.utils.RuntimeContext;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Base de las pruebas de handlers: un contexto en memoria por prueba y un token válido para invocarlos
+abstract class HandlerTestSupport {
+
+    protected static final Context CONTEXT = new TestContext();
+
+    protected RuntimeContext runtime;
+    protected EmployeeRepository employeeRepository;
+    private String token;
+
+    @BeforeAll
+    static void disableMetrics() {
+        Metrics.setEnabled(false);
+    }
+
+    @BeforeEach
+    void login() {
+        runtime = RuntimeContext.inMemory();
+        employeeRepository = runtime.getEmployeeRepository();
+        ((InMemoryUserRepository) runtime.getUserRepository()).save(new User("admin", "admin123", "admin-id"));
+
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("POST")
+                .withHeaders(Map.of())
+                .withBody("{\"username\":\"admin\",\"password\":\"admin123\"}");
+        token = body(new LoginHandler(runtime).handleRequest(request, CONTEXT)).get("token").getAsString();
+    }
+
+    /**
+     * Arma una solicitud autenticada
+     * @param body cuerpo JSON (puede ser null)
+     * @param id ID del path (null si la ruta no lo lleva)
+     * @param headers pares nombre, valor de cabeceras adicionales
+     * @return solicitud lista para el handler
+     */
+    protected APIGatewayProxyRequestEvent request(String body, String id, String... headers) {
+        Map<String, String> allHeaders = new HashMap<>();
+        allHeaders.put("Authorization", token);
+        for (int i = 0; i + 1 < headers.length; i += 2) {
+            allHeaders.put(headers[i], headers[i + 1]);
+        }
+        return new APIGatewayProxyRequestEvent()
+                .withHeaders(allHeaders)
+                .withBody(body)
+                .withPathParameters(id != null ? Map.of("id", id) : null);
+    }
+
+    /**
+     * Crea un empleado con CreateUpdateEmployeeHandler
+     * @param name nombre del empleado, que también forma su email
+     * @param supervisorId ID del supervisor (null si no tiene)
+     * @return el ID asignado
+     */
+    protected String create(String name, String supervisorId) {
+        JsonObject employee = new JsonObject();
+        employee.addProperty("nombre", name);
+        employee.addProperty("email", name + "@example.com");
+        employee.addProperty("supervisor_id", supervisorId);
+        APIGatewayProxyResponseEvent response = new CreateUpdateEmployeeHandler(runtime)
+                .handleRequest(request(employee.toString(), null), CONTEXT);
+        assertEquals(201, response.getStatusCode(), response.getBody());
+        return body(response).getAsJsonObject("employee").get("id").getAsString();
+    }
+
+    /**
+     * Guarda empleados como los dejaron las versiones anteriores a los contadores materializados:
+     * sin directReportsCount ni versión
+     * @param supervisorId ID del supervisor común (null si no tienen)
+     * @param ids IDs de los empleados, que también forman su email
+     */
+    protected void saveLegacy(String supervisorId, String... ids) {
+        List<Employee> employees = new ArrayList<>();
+        for (String id : ids) {
+            Employee employee = new Employee();
+            employee.setId(id);
+            employee.setNombre(id);
+            employee.setEmail(id + "@example.com");
+            employee.setSupervisor_id(supervisorId);
+            employee.setLastUpdated("2024-01-01T00:00:00Z");
+            employees.add(employee);
+        }
+        employeeRepository.saveAll(employees).join();
+    }
+
+    protected Employee stored(String id) {
+        return employeeRepository.findById(id).join();
+    }
+
+    protected static JsonObject body(APIGatewayProxyResponseEvent response) {
+        return JsonParser.parseString(response.getBody()).getAsJsonObject();
+    }
+
+    protected static String message(APIGatewayProxyResponseEvent response) {
+        return body(response).get("message").getAsString();
+    }
+}
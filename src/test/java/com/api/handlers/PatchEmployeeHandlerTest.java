@@ -0,0 +1,113 @@
+package com.api.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.api.models.Employee;
+import com.api.models.EmployeeFields;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PatchEmployeeHandlerTest extends HandlerTestSupport {
+
+    private PatchEmployeeHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new PatchEmployeeHandler(runtime);
+    }
+
+    @Test
+    void writesOnlyTheFieldsSent() {
+        String boss = create("jefa", null);
+        String id = create("ana", boss);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request("{\"nombre\":\"Ana P\"}", id), CONTEXT);
+
+        Employee employee = stored(id);
+        assertEquals(200, response.getStatusCode());
+        assertEquals("\"2\"", response.getHeaders().get("ETag"));
+        assertEquals("Ana P", employee.getNombre());
+        assertEquals("ana@example.com", employee.getEmail());
+        assertEquals(boss, employee.getSupervisor_id());
+        assertEquals(1, stored(boss).getDirectReportsCount());
+    }
+
+    @Test
+    void honorsIfMatch() {
+        String id = create("ana", null);
+
+        assertEquals(412, handler.handleRequest(request("{\"nombre\":\"Ana P\"}", id, "If-Match", "\"5\""), CONTEXT).getStatusCode());
+        assertEquals(200, handler.handleRequest(request("{\"nombre\":\"Ana P\"}", id, "If-Match", "*"), CONTEXT).getStatusCode());
+        assertEquals(404, handler.handleRequest(request("{\"nombre\":\"Ana P\"}", "nadie"), CONTEXT).getStatusCode());
+    }
+
+    @Test
+    void emailChangeReleasesTheOldEmail() {
+        String id = create("ana", null);
+        create("beto", null);
+
+        APIGatewayProxyResponseEvent taken = handler.handleRequest(request("{\"email\":\"Beto@example.com\"}", id), CONTEXT);
+        APIGatewayProxyResponseEvent changed = handler.handleRequest(request("{\"email\":\"ana.p@example.com\"}", id), CONTEXT);
+
+        assertEquals(409, taken.getStatusCode());
+        assertEquals(200, changed.getStatusCode());
+        assertNull(employeeRepository.findByEmail("ana@example.com", EmployeeFields.ALL).join());
+        assertEquals(id, employeeRepository.findByEmail("ana.p@example.com", EmployeeFields.ALL).join().getId());
+        create("ana", null);
+    }
+
+    @Test
+    void caseOnlyEmailChangeKeepsTheReservation() {
+        String id = create("ana", null);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request("{\"email\":\"ANA@example.com\"}", id), CONTEXT);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(id, employeeRepository.findByEmail("ana@example.com", EmployeeFields.ALL).join().getId());
+    }
+
+    @Test
+    void movingRewritesDescendantPathsAndCounters() {
+        String root = create("raiz", null);
+        String boss = create("jefa", null);
+        String middle = create("ana", boss);
+        String leaf = create("beto", middle);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request("{\"supervisor_id\":\"" + root + "\"}", boss), CONTEXT);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(1, stored(root).getDirectReportsCount());
+        assertEquals(List.of(root, boss), stored(middle).getAncestors());
+        assertEquals(List.of(root, boss, middle), stored(leaf).getAncestors());
+    }
+
+    @Test
+    void removingTheSupervisorDecrementsItsCounter() {
+        String boss = create("jefa", null);
+        String id = create("ana", boss);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request("{\"supervisor_id\":null}", id), CONTEXT);
+
+        assertEquals(200, response.getStatusCode());
+        assertNull(stored(id).getSupervisor_id());
+        assertEquals(List.of(), stored(id).getAncestors());
+        assertEquals(0, stored(boss).getDirectReportsCount());
+    }
+
+    @Test
+    void rejectsMovesUnderADescendant() {
+        String boss = create("jefa", null);
+        String middle = create("ana", boss);
+        String leaf = create("beto", middle);
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request("{\"supervisor_id\":\"" + leaf + "\"}", boss), CONTEXT);
+
+        assertEquals(400, response.getStatusCode());
+        assertEquals("La asignación crearía un ciclo en la jerarquía", message(response));
+        assertEquals(0, stored(leaf).getDirectReportsCount());
+    }
+}
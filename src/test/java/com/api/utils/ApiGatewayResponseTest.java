@@ -0,0 +1,74 @@
+package com.api.utils;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiGatewayResponseTest {
+
+    private static final String LARGE_BODY = "{\"items\":\"" + "a".repeat(4096) + "\"}";
+
+    @Test
+    void acceptsGzipAccordingToQValues() {
+        assertTrue(ApiGatewayResponse.acceptsGzip("gzip"));
+        assertTrue(ApiGatewayResponse.acceptsGzip("br, GZIP;q=0.5"));
+        assertTrue(ApiGatewayResponse.acceptsGzip("x-gzip"));
+        assertTrue(ApiGatewayResponse.acceptsGzip("*"));
+        assertFalse(ApiGatewayResponse.acceptsGzip(null));
+        assertFalse(ApiGatewayResponse.acceptsGzip("br"));
+        assertFalse(ApiGatewayResponse.acceptsGzip("gzip;q=0"));
+        assertFalse(ApiGatewayResponse.acceptsGzip("gzip;q=0.0, *"));
+        assertFalse(ApiGatewayResponse.acceptsGzip("*;q=0"));
+        assertFalse(ApiGatewayResponse.acceptsGzip("gzip;q=x"));
+    }
+
+    @Test
+    void compressesLargeBodiesWhenAccepted() throws IOException {
+        APIGatewayProxyResponseEvent response = ApiGatewayResponse.encode(request("gzip, deflate"), ApiGatewayResponse.build(200, LARGE_BODY));
+
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeaders().get("Vary"));
+        assertEquals(LARGE_BODY, gunzip(response.getBody()));
+    }
+
+    @Test
+    void keepsPlainBodiesWhenGzipIsRefused() {
+        APIGatewayProxyResponseEvent response = ApiGatewayResponse.encode(request("gzip;q=0"), ApiGatewayResponse.build(200, LARGE_BODY));
+
+        assertFalse(response.getIsBase64Encoded());
+        assertNull(response.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeaders().get("Vary"));
+        assertEquals(LARGE_BODY, response.getBody());
+    }
+
+    @Test
+    void keepsSmallBodiesUncompressed() {
+        APIGatewayProxyResponseEvent response = ApiGatewayResponse.encode(request("gzip"), ApiGatewayResponse.message(200, "ok"));
+
+        assertFalse(response.getIsBase64Encoded());
+        assertNull(response.getHeaders().get("Vary"));
+    }
+
+    private static APIGatewayProxyRequestEvent request(String acceptEncoding) {
+        return new APIGatewayProxyRequestEvent().withHeaders(Map.of("accept-encoding", acceptEncoding));
+    }
+
+    private static String gunzip(String base64) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64)))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.api.utils;
+
+import com.api.models.EmployeePatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+
+    @Test
+    void formatsAStrongETag() {
+        assertEquals("\"7\"", ETags.format(7));
+    }
+
+    @Test
+    void parsesIfMatch() {
+        assertNull(ETags.parseIfMatch(null));
+        assertNull(ETags.parseIfMatch(" "));
+        assertEquals(7L, ETags.parseIfMatch("\"7\""));
+        assertEquals(EmployeePatch.ANY_VERSION, ETags.parseIfMatch("*"));
+    }
+
+    @Test
+    void rejectsWeakOrForeignIfMatch() {
+        assertThrows(IllegalArgumentException.class, () -> ETags.parseIfMatch("W/\"7\""));
+        assertThrows(IllegalArgumentException.class, () -> ETags.parseIfMatch("\"abc\""));
+    }
+
+    @Test
+    void matchesIfNoneMatchWithWeakComparison() {
+        assertTrue(ETags.matchesIfNoneMatch("\"3\"", 3));
+        assertTrue(ETags.matchesIfNoneMatch("\"1\", W/\"3\"", 3));
+        assertTrue(ETags.matchesIfNoneMatch("*", 3));
+        assertFalse(ETags.matchesIfNoneMatch("\"2\"", 3));
+        assertFalse(ETags.matchesIfNoneMatch(null, 3));
+    }
+
+    @Test
+    void findsHeadersIgnoringCase() {
+        assertEquals("\"1\"", ETags.header(Map.of("if-match", "\"1\""), "If-Match"));
+        assertNull(ETags.header(Map.of(), "If-Match"));
+        assertNull(ETags.header(null, "If-Match"));
+    }
+}
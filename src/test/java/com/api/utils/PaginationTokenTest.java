@@ -0,0 +1,44 @@
+package com.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PaginationTokenTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        Map<String, String> key = Map.of("id", "a1b2-c3");
+
+        assertEquals(key, PaginationToken.decode(PaginationToken.encode(key)));
+    }
+
+    @Test
+    void encodesNoTokenForTheLastPage() {
+        assertNull(PaginationToken.encode(null));
+        assertNull(PaginationToken.encode(Map.of()));
+    }
+
+    @Test
+    void rejectsTokensThatAreNotBase64() {
+        assertThrows(IllegalArgumentException.class, () -> PaginationToken.decode("no es base64!"));
+    }
+
+    @Test
+    void rejectsTokensThatAreNotAKey() {
+        assertThrows(IllegalArgumentException.class, () -> PaginationToken.decode(encode("{}")));
+        assertThrows(IllegalArgumentException.class, () -> PaginationToken.decode(encode("[\"id\"]")));
+        assertThrows(IllegalArgumentException.class, () -> PaginationToken.decode(encode("{\"id\":")));
+        assertThrows(IllegalArgumentException.class, () -> PaginationToken.decode(encode("{\"id\":{\"S\":\"x\"}}")));
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,193 @@
+package com.api.utils;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.api.models.Employee;
+import com.api.models.EmployeePatch;
+import com.api.repositories.InMemoryEmployeeRepository;
+import com.api.repositories.InvalidHierarchyException;
+import com.api.repositories.SupervisorNotFoundException;
+import com.api.repositories.VersionMismatchException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SupervisorChainTest {
+
+    private static final LambdaLogger LOGGER = new LambdaLogger() {
+        @Override
+        public void log(String message) {
+        }
+
+        @Override
+        public void log(byte[] message) {
+        }
+    };
+
+    private InMemoryEmployeeRepository repository;
+    private SupervisorChain chain;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryEmployeeRepository();
+        chain = new SupervisorChain(repository);
+    }
+
+    @Test
+    void extendRejectsCyclesAndExcessDepth() {
+        assertEquals(List.of("a", "b"), SupervisorChain.extend("c", List.of("a"), "b"));
+        assertThrows(InvalidHierarchyException.class, () -> SupervisorChain.extend("a", List.of("a"), "b"));
+        assertThrows(InvalidHierarchyException.class, () -> SupervisorChain.extend("a", List.of(), "a"));
+        assertThrows(InvalidHierarchyException.class,
+                () -> SupervisorChain.extend("x", Collections.nCopies(SupervisorChain.MAX_DEPTH, "p"), "s"));
+    }
+
+    @Test
+    void resolveAncestorsReadsTheSupervisorPath() {
+        save("a", null);
+        save("b", "a");
+
+        assertEquals(List.of("a", "b"), chain.resolveAncestors("c", "b").join());
+        assertCause(SupervisorNotFoundException.class, chain.resolveAncestors("c", "nadie"));
+        assertCause(InvalidHierarchyException.class, chain.resolveAncestors("a", "b"));
+    }
+
+    @Test
+    void checkMoveFindsDescendantsEvenWithStalePaths() {
+        Employee a = save("a", null);
+        save("b", "a");
+        save("c", "b");
+        // La ruta guardada de c no refleja que está debajo de a
+        repository.updateAncestors(Map.of("c", List.of())).join();
+
+        List<String> ancestors = SupervisorChain.extend("a", List.of(), "c");
+
+        assertCause(InvalidHierarchyException.class, chain.checkMove(a, "c", ancestors));
+    }
+
+    @Test
+    void checkMoveRejectsCyclesAlreadyStored() {
+        Employee a = save("a", null);
+        save("b", "a");
+        // Un ciclo a -> b -> a escrito sin pasar por la validación
+        EmployeePatch patch = new EmployeePatch("a");
+        patch.setSupervisor_id("b");
+        patch.setAncestors(List.of("a", "b"));
+        patch.setLastUpdated("2024-01-02T00:00:00Z");
+        repository.patch(patch).join();
+
+        assertCause(InvalidHierarchyException.class, chain.checkMove(a, null, List.of()));
+    }
+
+    @Test
+    void checkMoveBoundsTheDepthOfTheMovedSubtree() {
+        Employee root = save("x0", null);
+        for (int i = 1; i <= 4; i++) {
+            save("x" + i, "x" + (i - 1));
+        }
+
+        // Los cuatro niveles de debajo deben entrar sin superar MAX_DEPTH
+        chain.checkMove(root, "s", Collections.nCopies(SupervisorChain.MAX_DEPTH - 4, "p")).join();
+        assertCause(InvalidHierarchyException.class,
+                chain.checkMove(root, "s", Collections.nCopies(SupervisorChain.MAX_DEPTH - 3, "p")));
+    }
+
+    @Test
+    void checkMoveBoundsTheSizeOfTheMovedSubtree() {
+        Employee boss = save("boss", null);
+        List<Employee> reports = new ArrayList<>();
+        for (int i = 0; i < SupervisorChain.MAX_MOVE_SIZE; i++) {
+            reports.add(employee("r" + i, "boss", List.of("boss")));
+        }
+        repository.saveAll(reports).join();
+
+        chain.checkMove(boss, null, List.of()).join();
+
+        repository.saveAll(List.of(employee("extra", "boss", List.of("boss")))).join();
+        assertCause(InvalidHierarchyException.class, chain.checkMove(boss, null, List.of()));
+    }
+
+    @Test
+    void patchRewritesTheDescendantPaths() {
+        save("a", null);
+        save("b", null);
+        save("c", "b");
+        save("d", "c");
+
+        EmployeePatch patch = new EmployeePatch("b");
+        patch.setSupervisor_id("a");
+        patch.setLastUpdated("2024-01-02T00:00:00Z");
+        chain.patch(patch, LOGGER).join();
+
+        assertEquals(List.of("a", "b", "c"), repository.findById("d").join().getAncestors());
+        assertEquals(1, repository.findById("a").join().getDirectReportsCount());
+    }
+
+    @Test
+    void patchSkipsTheMoveCheckWhenTheSupervisorIsKept() {
+        save("boss", null);
+        save("jefa", "boss");
+        List<Employee> reports = new ArrayList<>();
+        for (int i = 0; i <= SupervisorChain.MAX_MOVE_SIZE; i++) {
+            reports.add(employee("r" + i, "jefa", List.of("boss", "jefa")));
+        }
+        repository.saveAll(reports).join();
+
+        // Con más de MAX_MOVE_SIZE subordinados solo se puede escribir si no se valida un movimiento
+        EmployeePatch patch = new EmployeePatch("jefa");
+        patch.setNombre("Jefa");
+        patch.setSupervisor_id("boss");
+        patch.setLastUpdated("2024-01-02T00:00:00Z");
+
+        assertEquals(2L, chain.patch(patch, LOGGER).join());
+        assertEquals(List.of("boss"), repository.findById("jefa").join().getAncestors());
+    }
+
+    @Test
+    void patchChecksTheRequestedVersionAgainstTheRead() {
+        save("a", null);
+        save("b", null);
+
+        EmployeePatch patch = new EmployeePatch("b");
+        patch.setSupervisor_id("a");
+        patch.setExpectedVersion(7L);
+        patch.setLastUpdated("2024-01-02T00:00:00Z");
+
+        assertCause(VersionMismatchException.class, chain.patch(patch, LOGGER));
+        assertEquals(0, repository.findById("a").join().getDirectReportsCount());
+    }
+
+    private Employee save(String id, String supervisorId) {
+        List<String> ancestors = supervisorId == null ? List.of() : chain.resolveAncestors(id, supervisorId).join();
+        Employee employee = employee(id, supervisorId, ancestors);
+        repository.create(employee).join();
+        return repository.findById(id).join();
+    }
+
+    private static Employee employee(String id, String supervisorId, List<String> ancestors) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setNombre(id);
+        employee.setEmail(id + "@example.com");
+        employee.setSupervisor_id(supervisorId);
+        employee.setAncestors(ancestors);
+        employee.setDirectReportsCount(0);
+        employee.setVersion(1L);
+        employee.setLastUpdated("2024-01-01T00:00:00Z");
+        return employee;
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, CompletableFuture<?> future) {
+        CompletionException error = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(expected, error.getCause());
+    }
+}
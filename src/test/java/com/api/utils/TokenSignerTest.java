@@ -0,0 +1,60 @@
+package com.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// La clave de firma se define en la configuración de surefire (TOKEN_SIGNING_KEYS)
+class TokenSignerTest {
+
+    private static final long IN_ONE_HOUR = Instant.now().getEpochSecond() + 3600;
+
+    @Test
+    void verifiesItsOwnTokens() {
+        String token = TokenSigner.sign("uid", "admin", IN_ONE_HOUR);
+
+        Map<String, Object> result = TokenSigner.verify(token);
+
+        assertTrue(TokenSigner.isSignedToken(token));
+        assertEquals(true, result.get("isValid"));
+        assertEquals("uid", result.get("userId"));
+        assertEquals("admin", result.get("username"));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        Map<String, Object> result = TokenSigner.verify(TokenSigner.sign("uid", "admin", Instant.now().getEpochSecond() - 1));
+
+        assertEquals(false, result.get("isValid"));
+        assertEquals("Token expirado", result.get("message"));
+    }
+
+    @Test
+    void rejectsTamperedPayloads() {
+        String[] parts = TokenSigner.sign("uid", "admin", IN_ONE_HOUR).split("\\.");
+        String other = TokenSigner.sign("otro", "root", IN_ONE_HOUR).split("\\.")[2];
+
+        assertInvalid(parts[0] + "." + parts[1] + "." + other + "." + parts[3]);
+    }
+
+    @Test
+    void rejectsUnknownKeysAndMalformedTokens() {
+        String[] parts = TokenSigner.sign("uid", "admin", IN_ONE_HOUR).split("\\.");
+
+        assertInvalid(parts[0] + ".otra." + parts[2] + "." + parts[3]);
+        assertInvalid(parts[0] + "." + parts[1] + "." + parts[2] + ".%%");
+        assertInvalid("v1.test");
+        assertFalse(TokenSigner.isSignedToken("3f2a-opaque"));
+    }
+
+    private static void assertInvalid(String token) {
+        Map<String, Object> result = TokenSigner.verify(token);
+        assertEquals(false, result.get("isValid"));
+        assertEquals("Token inválido", result.get("message"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.api.utils;
+
+import com.api.models.Token;
+import com.api.repositories.InMemoryTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenVerifierTest {
+
+    private static final long IN_ONE_HOUR = Instant.now().getEpochSecond() + 3600;
+
+    private InMemoryTokenRepository repository;
+    private TokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTokenRepository();
+        verifier = new TokenVerifier(repository);
+    }
+
+    @Test
+    void servesRepeatedVerificationsFromTheCache() {
+        repository.save(new Token("valido", "admin", "uid", IN_ONE_HOUR)).join();
+
+        assertEquals(true, verifier.verifyToken("valido").join().get("isValid"));
+        assertEquals(true, verifier.verifyToken("valido").join().get("isValid"));
+        assertEquals(false, verifier.verifyToken("inventado").join().get("isValid"));
+        assertEquals(false, verifier.verifyToken("inventado").join().get("isValid"));
+
+        assertEquals(2, verifier.getCacheHits());
+        assertEquals(2, verifier.getCacheMisses());
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        repository.save(new Token("vencido", "admin", "uid", Instant.now().getEpochSecond() - 1)).join();
+
+        Map<String, Object> result = verifier.verifyToken("vencido").join();
+
+        assertEquals(false, result.get("isValid"));
+        assertEquals("Token expirado", result.get("message"));
+    }
+
+    @Test
+    void aFloodOfInvalidTokensDoesNotEvictValidOnes() {
+        List<String> valid = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String token = UUID.randomUUID().toString();
+            valid.add(token);
+            repository.save(new Token(token, "admin", "uid", IN_ONE_HOUR)).join();
+            verifier.verifyToken(token).join();
+        }
+
+        // Varias veces más tokens inventados que la capacidad de la caché de tokens válidos
+        for (int i = 0; i < 50000; i++) {
+            verifier.verifyToken(UUID.randomUUID().toString()).join();
+        }
+
+        long hits = verifier.getCacheHits();
+        for (String token : valid) {
+            assertEquals(true, verifier.verifyToken(token).join().get("isValid"));
+        }
+        assertEquals(hits + valid.size(), verifier.getCacheHits());
+    }
+}